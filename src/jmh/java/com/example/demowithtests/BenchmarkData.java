@@ -0,0 +1,49 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Address;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Employees shaped like the ones the API returns, two addresses each.
+ */
+final class BenchmarkData {
+
+    private static final String[] NAMES = {"oleh", "  Olena ", "MARIO", "anna-Maria", "Petro", "iryna"};
+
+    private static final String[] COUNTRIES = {"Ukraine", "Italy", "Poland", "Germany"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Employee> employees(int size) {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(employee(i));
+        }
+        return employees;
+    }
+
+    static Employee employee(int i) {
+        String name = NAMES[i % NAMES.length];
+        return Employee.builder()
+                .id(i + 1)
+                .name(name)
+                .country(COUNTRIES[i % COUNTRIES.length])
+                .email(name.trim() + i + "@Mail.COM")
+                .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                .isDeleted(false)
+                .version((long) i % 3)
+                .addresses(new HashSet<>(Set.of(
+                        Address.builder().id(2L * i).country("UA").city("Kyiv").street("Khreshchatyk " + i)
+                                .addressHasActive(true).build(),
+                        Address.builder().id(2L * i + 1).country("PL").city("Krakow").street("Florianska " + i)
+                                .addressHasActive(false).build())))
+                .build();
+    }
+}
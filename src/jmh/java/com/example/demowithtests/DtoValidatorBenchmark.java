@@ -0,0 +1,94 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.util.annotations.dto.BlockedEmailDomains;
+import com.example.demowithtests.util.annotations.dto.BlockedEmailDomainsValidator;
+import com.example.demowithtests.util.annotations.dto.CountryRightFormedValidator;
+import com.example.demowithtests.util.annotations.dto.NameNoNumbersFormedValidator;
+import com.example.demowithtests.util.annotations.dto.NameNotAllowedFormed;
+import com.example.demowithtests.util.annotations.dto.NameNotAllowedFormedValidator;
+import com.example.demowithtests.util.annotations.dto.ValidName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The custom DTO constraint validators, initialized from the annotations on the DTOs. Every invocation
+ * validates the same mix of valid and invalid values, the time is per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoValidatorBenchmark {
+
+    private static final int VALUES = 8;
+
+    private static final String[] EMAILS = {"oleh@mail.com", "olena@gmail.com", "ivan@yandex.ru",
+            "petro@ukr.net", "anna@mail.su", "mario@libero.it", "iryna@company.com.ua", "taras@mail.com1"};
+
+    private static final String[] NAMES = {"Oleh", "Olena", "Petro3", " putin ", "Anna-Maria", "Mao Zedong",
+            "Mario", "Iryna"};
+
+    private static final String[] COUNTRIES = {"UA", "PL", "ukr", "Ua", "IT", "DE", "Poland", "GB"};
+
+    private final BlockedEmailDomainsValidator blockedEmailDomains = new BlockedEmailDomainsValidator();
+
+    private final NameNoNumbersFormedValidator nameNoNumbers = new NameNoNumbersFormedValidator();
+
+    private final NameNotAllowedFormedValidator nameNotAllowed = new NameNotAllowedFormedValidator();
+
+    private final CountryRightFormedValidator countryRightFormed = new CountryRightFormedValidator();
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        blockedEmailDomains.initialize(EmployeeSaveDto.class.getDeclaredField("email")
+                .getAnnotation(BlockedEmailDomains.class));
+        nameNotAllowed.initialize(ValidName.class.getAnnotation(NameNotAllowedFormed.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void blockedEmailDomains(Blackhole blackhole) {
+        for (String email : EMAILS) {
+            blackhole.consume(blockedEmailDomains.isValid(email, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void nameNoNumbers(Blackhole blackhole) {
+        for (String name : NAMES) {
+            blackhole.consume(nameNoNumbers.isValid(name, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void nameNotAllowed(Blackhole blackhole) {
+        for (String name : NAMES) {
+            blackhole.consume(nameNotAllowed.isValid(name, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void countryRightFormed(Blackhole blackhole) {
+        for (String country : COUNTRIES) {
+            blackhole.consume(countryRightFormed.isValid(country, null));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.dto.EmployeeReadDto;
+import com.example.demowithtests.util.mappers.EmployeeMapper;
+import com.example.demowithtests.util.mappers.EmployeeMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EmployeeMapper} from entities to the read DTO, one employee and the lists behind the list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeMapperBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private final EmployeeMapper mapper = new EmployeeMapperImpl();
+
+    private List<Employee> employees;
+
+    private Employee employee;
+
+    @Setup
+    public void setUp() {
+        employees = BenchmarkData.employees(size);
+        employee = employees.get(0);
+    }
+
+    @Benchmark
+    public EmployeeReadDto toEmployeeReadDto() {
+        return mapper.toEmployeeReadDto(employee);
+    }
+
+    @Benchmark
+    public List<EmployeeReadDto> toListEmployeeReadDto() {
+        return mapper.toListEmployeeReadDto(employees);
+    }
+}
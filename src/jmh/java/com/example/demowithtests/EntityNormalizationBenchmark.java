@@ -0,0 +1,82 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.util.annotations.entity.ActivateCustomAnnotations;
+import com.example.demowithtests.util.annotations.entity.CustomEntityValidationAspect;
+import com.example.demowithtests.util.annotations.entity.Name;
+import com.example.demowithtests.util.annotations.entity.ToLowerCase;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.runtime.reflect.Factory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CustomEntityValidationAspect#makeValid} as called before {@code create} and {@code createAll} of the
+ * employee service, without the Spring proxy. After the first call the values are already normalized, like
+ * an employee saved twice; the reflective lookups are the same on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityNormalizationBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private final CustomEntityValidationAspect aspect = new CustomEntityValidationAspect();
+
+    private JoinPoint create;
+
+    private JoinPoint createAll;
+
+    @Setup
+    public void setUp() {
+        var factory = new Factory(getClass().getSimpleName() + ".java", getClass());
+        var createSignature = factory.makeMethodSig(Modifier.PUBLIC, "create", getClass(),
+                new Class[]{Employee.class}, new String[]{"employee"}, new Class[0], Employee.class);
+        var createAllSignature = factory.makeMethodSig(Modifier.PUBLIC, "createAll", getClass(),
+                new Class[]{List.class}, new String[]{"employees"}, new Class[0], List.class);
+        create = Factory.makeJP(factory.makeSJP(JoinPoint.METHOD_EXECUTION, createSignature, 0),
+                this, this, BenchmarkData.employee(0));
+        createAll = Factory.makeJP(factory.makeSJP(JoinPoint.METHOD_EXECUTION, createAllSignature, 0),
+                this, this, BenchmarkData.employees(size));
+    }
+
+    @Benchmark
+    public void employee() throws Throwable {
+        aspect.makeValid(create);
+    }
+
+    @Benchmark
+    public void employees() throws Throwable {
+        aspect.makeValid(createAll);
+    }
+
+    // signatures the join points stand for, the aspect reads their annotation
+
+    @ActivateCustomAnnotations({Name.class, ToLowerCase.class})
+    public Employee create(Employee employee) {
+        return employee;
+    }
+
+    @ActivateCustomAnnotations({Name.class, ToLowerCase.class})
+    public List<Employee> createAll(List<Employee> employees) {
+        return employees;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.demowithtests.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -13,10 +16,12 @@ import java.util.*;
 @Builder
 @Entity
 @Table(name = "documents")
-public final class Document {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class Document {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_seq")
+    @SequenceGenerator(name = "documents_seq", sequenceName = "documents_seq", allocationSize = 50)
     private Integer id;
 
     @Column(unique = true, nullable = false)
@@ -38,7 +43,13 @@ public final class Document {
     @Column(name = "is_deleted")
     private Boolean isDeleted = Boolean.FALSE;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<DocumentHistory> history = new ArrayList<>();
 
     /*@OneToOne(cascade = CascadeType.ALL)
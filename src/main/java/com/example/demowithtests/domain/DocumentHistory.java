@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -15,10 +17,12 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "documents_history")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class DocumentHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documents_history_seq")
+    @SequenceGenerator(name = "documents_history_seq", sequenceName = "documents_history_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime timestamp;
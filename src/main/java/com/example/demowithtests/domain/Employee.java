@@ -1,25 +1,40 @@
 package com.example.demowithtests.domain;
 
+import com.example.demowithtests.service.search.EmployeeSearchIndexListener;
 import com.example.demowithtests.util.annotations.entity.Name;
 import com.example.demowithtests.util.annotations.entity.ToLowerCase;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(EmployeeSearchIndexListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// enabled on every transaction, see SoftDeleteFilterConfig; loads by id are not filtered
+@FilterDef(name = Employee.ACTIVE_FILTER, defaultCondition = "is_deleted = false")
+@Filter(name = Employee.ACTIVE_FILTER)
 @AllArgsConstructor
 @NoArgsConstructor
 @Setter
 @Getter
 @Builder
-public final class Employee {
+public class Employee {
+
+    public static final String ACTIVE_FILTER = "activeEmployees";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Integer id;
 
     @Name
@@ -30,19 +45,31 @@ public final class Employee {
     @ToLowerCase
     private String email;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // lazy: every read path picks its own fetch plan, see EmployeeRepository
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id")
     @OrderBy("id desc, country asc")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Address> addresses = new HashSet<>();
 
     @Enumerated(EnumType.STRING)
     private Gender gender;
 
+    // lazy through a proxy, so neither entity class may be final
     @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "document_id", referencedColumnName = "id")
     @JsonIgnore
     private Document document;
 
-    @Column(name = "is_deleted")
+    @Column(name = "is_deleted", nullable = false)
+    @ColumnDefault("false")
+    @Builder.Default
     private Boolean isDeleted = Boolean.FALSE;
+
+    // bumped by every write, native statements included, see EmployeeBulkRepository
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package com.example.demowithtests.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One mail sent to the employees matching a filter, each recipient is a {@link MailOutboxMessage}.
+ * {@code {name}} in the body is replaced with the name of the recipient.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "mail_jobs")
+public class MailJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 10_000)
+    private String body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private int recipients;
+}
@@ -0,0 +1,59 @@
+package com.example.demowithtests.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One recipient of a {@link MailJob}. Rows are written with plain SQL, see
+ * {@link com.example.demowithtests.repository.MailOutboxQueue}; the entity is for reading them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+// the partial index on the due messages is only in the migration, JPA cannot describe it
+@Table(name = "mail_outbox", indexes = @Index(name = "mail_outbox_job_idx", columnList = "job_id, status"))
+public class MailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    private Integer employeeId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MailStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1_000)
+    private String lastError;
+
+    private Instant sentAt;
+}
@@ -0,0 +1,14 @@
+package com.example.demowithtests.domain;
+
+/**
+ * State of one recipient of a {@link MailJob}.
+ */
+public enum MailStatus {
+    // waiting for its first attempt or for the next one after a failure
+    PENDING,
+    // claimed by a dispatcher, back to PENDING if it is not done when the lease runs out
+    SENDING,
+    SENT,
+    // given up: the address is invalid or every attempt failed
+    FAILED
+}
@@ -0,0 +1,29 @@
+package com.example.demowithtests.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record EmployeeBatchResultDto(
+        @Schema(description = "Position of the item in the request")
+        int index,
+
+        @Schema(description = "Id in DB, null if the item was rejected")
+        Integer id,
+
+        @Schema(description = "CREATED or REJECTED")
+        Status status,
+
+        @Schema(description = "Validation errors of a rejected item")
+        List<String> errors
+) {
+    public enum Status {CREATED, REJECTED}
+
+    public static EmployeeBatchResultDto created(int index, Integer id) {
+        return new EmployeeBatchResultDto(index, id, Status.CREATED, List.of());
+    }
+
+    public static EmployeeBatchResultDto rejected(int index, List<String> errors) {
+        return new EmployeeBatchResultDto(index, null, Status.REJECTED, errors);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.domain.Gender;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record EmployeeCriteriaDto(
+        @Schema(description = "Employees from this country only")
+        String country,
+
+        @Schema(description = "Employees of this gender only")
+        Gender gender,
+
+        @Schema(description = "Employees among these ids only")
+        List<Integer> ids,
+
+        @Schema(description = "Employees whose name contains this text only")
+        String name
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.demowithtests.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record EmployeeCursorPageDto(
+        List<EmployeeReadDto> content,
+
+        @Schema(description = "Number of entries in this window")
+        int size,
+
+        @Schema(description = "Opaque cursor for the next window, null on the last one")
+        String nextCursor
+) {
+}
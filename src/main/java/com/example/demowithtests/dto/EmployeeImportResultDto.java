@@ -0,0 +1,32 @@
+package com.example.demowithtests.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record EmployeeImportResultDto(
+        @Schema(description = "Employees read from the file")
+        long records,
+
+        @Schema(description = "Employees created")
+        long created,
+
+        @Schema(description = "Employees rejected, every one has an error unless the report was cut")
+        long rejected,
+
+        @Schema(description = "Errors of the rejected employees by line, the first ones only for a large file")
+        List<LineError> errors,
+
+        long millis,
+
+        @Schema(description = "Read, validated and created employees per second")
+        long rowsPerSecond
+) {
+    public record LineError(
+            @Schema(description = "Line of the file the employee starts on, from 1")
+            long line,
+
+            List<String> errors
+    ) {
+    }
+}
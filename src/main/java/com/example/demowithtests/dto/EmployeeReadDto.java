@@ -35,4 +35,7 @@ public class EmployeeReadDto {
     public Date date = Date.from(Instant.now());
 
     public Gender gender;
+
+    @Schema(description = "Version for conditional updates, send it back in If-Match")
+    public Long version;
 }
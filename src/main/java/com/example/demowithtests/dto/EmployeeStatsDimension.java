@@ -0,0 +1,10 @@
+package com.example.demowithtests.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Employee attribute the statistics can be grouped by")
+public enum EmployeeStatsDimension {
+    COUNTRY,
+    GENDER,
+    DELETED
+}
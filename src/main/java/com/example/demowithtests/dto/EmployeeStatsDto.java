@@ -0,0 +1,16 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.domain.Gender;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Employee count of one group, attributes that are not grouped by are null")
+public record EmployeeStatsDto(
+        String country,
+
+        Gender gender,
+
+        Boolean deleted,
+
+        long count
+) {
+}
@@ -0,0 +1,56 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.service.export.ExportFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record ExportJobDto(
+        @Schema(description = "Id of the job, used to poll and download")
+        String id,
+
+        ExportFormat format,
+
+        @Schema(description = "Whether soft deleted employees are exported")
+        boolean includeDeleted,
+
+        @Schema(description = "QUEUED, RUNNING, DONE or FAILED")
+        Status status,
+
+        Instant createdAt,
+
+        Instant startedAt,
+
+        Instant finishedAt,
+
+        @Schema(description = "Exported employees, known once the job is done")
+        long employees,
+
+        @Schema(description = "Size of the compressed file, known once the job is done")
+        long bytes,
+
+        @Schema(description = "Reason of a failed job")
+        String error
+) {
+    public enum Status {QUEUED, RUNNING, DONE, FAILED}
+
+    public static ExportJobDto queued(String id, ExportFormat format, boolean includeDeleted) {
+        return new ExportJobDto(id, format, includeDeleted, Status.QUEUED, Instant.now(), null, null, 0, 0, null);
+    }
+
+    public ExportJobDto running() {
+        return new ExportJobDto(id, format, includeDeleted, Status.RUNNING, createdAt, Instant.now(), null, 0, 0, null);
+    }
+
+    public ExportJobDto done(long employees, long bytes) {
+        return new ExportJobDto(id, format, includeDeleted, Status.DONE, createdAt, startedAt, Instant.now(), employees, bytes, null);
+    }
+
+    public ExportJobDto failed(String error) {
+        return new ExportJobDto(id, format, includeDeleted, Status.FAILED, createdAt, startedAt, Instant.now(), 0, 0, error);
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
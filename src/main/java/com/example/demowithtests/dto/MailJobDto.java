@@ -0,0 +1,42 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.domain.MailJob;
+import com.example.demowithtests.domain.MailStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record MailJobDto(
+        @Schema(description = "Id of the job, used to poll its progress")
+        String id,
+
+        String subject,
+
+        Instant createdAt,
+
+        @Schema(description = "Employees the mail is sent to")
+        int recipients,
+
+        @Schema(description = "Recipients waiting for their first or next attempt")
+        long pending,
+
+        @Schema(description = "Recipients being sent to right now")
+        long sending,
+
+        long sent,
+
+        @Schema(description = "Recipients given up on, see their last error")
+        long failed,
+
+        @Schema(description = "Whether every recipient is sent or failed")
+        boolean finished
+) {
+    public static MailJobDto of(MailJob job, Map<MailStatus, Long> counts) {
+        long pending = counts.getOrDefault(MailStatus.PENDING, 0L);
+        long sending = counts.getOrDefault(MailStatus.SENDING, 0L);
+        return new MailJobDto(job.getId(), job.getSubject(), job.getCreatedAt(), job.getRecipients(),
+                pending, sending, counts.getOrDefault(MailStatus.SENT, 0L), counts.getOrDefault(MailStatus.FAILED, 0L),
+                pending + sending == 0);
+    }
+}
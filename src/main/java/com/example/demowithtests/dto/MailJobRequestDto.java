@@ -0,0 +1,32 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.domain.Gender;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record MailJobRequestDto(
+        @Schema(description = "Recipients from this country only")
+        String country,
+
+        @Schema(description = "Recipients of this gender only")
+        Gender gender,
+
+        @Schema(description = "Recipients among these employee ids only")
+        List<Integer> ids,
+
+        @Schema(description = "Recipients whose name contains this text only")
+        String name,
+
+        @NotBlank
+        @Size(max = 255)
+        String subject,
+
+        @NotBlank
+        @Size(max = 10_000)
+        @Schema(description = "Text of the mail, {name} is replaced with the name of the recipient")
+        String body
+) {
+}
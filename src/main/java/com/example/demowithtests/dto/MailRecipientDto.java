@@ -0,0 +1,28 @@
+package com.example.demowithtests.dto;
+
+import com.example.demowithtests.domain.MailOutboxMessage;
+import com.example.demowithtests.domain.MailStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record MailRecipientDto(
+        Integer employeeId,
+
+        String recipient,
+
+        MailStatus status,
+
+        @Schema(description = "Attempts made so far")
+        int attempts,
+
+        @Schema(description = "Reason of the last failed attempt")
+        String lastError,
+
+        Instant sentAt
+) {
+    public static MailRecipientDto of(MailOutboxMessage message) {
+        return new MailRecipientDto(message.getEmployeeId(), message.getRecipient(), message.getStatus(),
+                message.getAttempts(), message.getLastError(), message.getSentAt());
+    }
+}
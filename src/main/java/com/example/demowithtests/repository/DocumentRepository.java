@@ -1,9 +1,25 @@
 package com.example.demowithtests.repository;
 
 import com.example.demowithtests.domain.Document;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Integer> {
+
+    // documents are serialized with their history, and the inverse one-to-one would otherwise need its own select
+    @Override
+    @EntityGraph(attributePaths = {"history", "employee"})
+    Optional<Document> findById(Integer id);
+
+    // check and change in one statement, two concurrent calls cannot both handle the document
+    @Query("update versioned Document d set d.isHandled = true where d.id = :id and d.isHandled = false")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int markHandled(@Param("id") Integer id);
 }
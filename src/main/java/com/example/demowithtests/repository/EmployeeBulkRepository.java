@@ -0,0 +1,31 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.Employee;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statements that change employees without loading them. Each one increments the version of the rows it changes.
+ */
+public interface EmployeeBulkRepository {
+
+    /**
+     * Sets {@code is_deleted} of the employees matching {@code criteria} in chunks of {@code chunkSize} rows.
+     * Each chunk is a single {@code UPDATE} committed in its own transaction, so locks are held briefly
+     * and always taken in id order. Rows that already have the flag are skipped.
+     *
+     * @return ids of the changed employees, ascending
+     */
+    List<Integer> updateDeletedFlag(EmployeeCriteria criteria, boolean deleted, int chunkSize);
+
+    /**
+     * Sets columns of one active employee with a single {@code UPDATE ... RETURNING}. With {@code expectedVersion}
+     * the row is only changed while it still has that version, so a concurrent write is never overwritten.
+     *
+     * @param columns new values by column, only {@code name}, {@code email}, {@code country} and {@code gender}
+     * @return the updated employee without its associations, empty when no row matched
+     */
+    Optional<Employee> updateColumns(Integer id, Map<String, Object> columns, Long expectedVersion);
+}
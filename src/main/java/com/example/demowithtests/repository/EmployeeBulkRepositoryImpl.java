@@ -0,0 +1,167 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+class EmployeeBulkRepositoryImpl implements EmployeeBulkRepository {
+
+    private static final Set<String> UPDATABLE_COLUMNS = Set.of("name", "email", "country", "gender");
+
+    private static final String RETURNED_COLUMNS = "id, name, email, country, gender, is_deleted, version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate chunkTransaction;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // PostgreSQL returns the changed rows with RETURNING, H2 (tests) through a data change delta table
+    private final boolean returning;
+
+    EmployeeBulkRepositoryImpl(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManagerFactory = entityManagerFactory;
+        this.returning = "PostgreSQL".equals(productName(dataSource));
+    }
+
+    @Override
+    public List<Integer> updateDeletedFlag(EmployeeCriteria criteria, boolean deleted, int chunkSize) {
+        if (criteria == null || criteria.isEmpty()) {
+            throw new IllegalArgumentException("At least one criterion is required for a bulk update");
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("deleted", deleted)
+                .addValue("limit", chunkSize);
+        StringBuilder where = new StringBuilder("is_deleted IS DISTINCT FROM :deleted");
+        criteria.appendConditions(where, parameters);
+
+        List<Integer> changed = new ArrayList<>();
+        if (criteria.ids() != null && !criteria.ids().isEmpty()) {
+            List<Integer> ids = criteria.ids().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            String sql = update(where + " AND id IN (:ids)");
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                parameters.addValue("ids", ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+                changed.addAll(execute(sql, parameters));
+            }
+        } else {
+            // keyset over id: each chunk selects the next rows after the last changed id
+            String sql = update(where + " AND id > :after ORDER BY id LIMIT :limit");
+            List<Integer> chunk;
+            int after = Integer.MIN_VALUE;
+            do {
+                parameters.addValue("after", after);
+                chunk = execute(sql, parameters);
+                changed.addAll(chunk);
+                if (!chunk.isEmpty()) {
+                    after = chunk.get(chunk.size() - 1);
+                }
+            } while (chunk.size() == chunkSize);
+        }
+
+        if (!changed.isEmpty()) {
+            evictCaches(() -> entityManagerFactory.getCache().evict(Employee.class));
+        }
+        log.debug("updateDeletedFlag() - end: criteria = {}, deleted = {}, changed = {}", criteria, deleted, changed.size());
+        return changed;
+    }
+
+    @Override
+    public Optional<Employee> updateColumns(Integer id, Map<String, Object> columns, Long expectedVersion) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("id", id);
+        StringBuilder set = new StringBuilder("version = version + 1");
+        columns.forEach((column, value) -> {
+            if (!UPDATABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Column " + column + " cannot be updated");
+            }
+            set.append(", ").append(column).append(" = :").append(column);
+            parameters.addValue(column, value instanceof Enum<?> constant ? constant.name() : value, Types.VARCHAR);
+        });
+        String where = "id = :id AND is_deleted = false";
+        if (expectedVersion != null) {
+            where += " AND version = :version";
+            parameters.addValue("version", expectedVersion);
+        }
+        String update = "UPDATE users SET " + set + " WHERE " + where;
+        String sql = returning
+                ? update + " RETURNING " + RETURNED_COLUMNS
+                : "SELECT " + RETURNED_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+
+        List<Employee> updated = jdbcTemplate.query(sql, parameters, (rs, rowNum) -> Employee.builder()
+                .id(rs.getInt("id"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .country(rs.getString("country"))
+                .gender(rs.getString("gender") == null ? null : Gender.valueOf(rs.getString("gender")))
+                .isDeleted(rs.getBoolean("is_deleted"))
+                .version(rs.getLong("version"))
+                .build());
+        if (!updated.isEmpty()) {
+            evictCaches(() -> entityManagerFactory.getCache().evict(Employee.class, id));
+        }
+        return updated.stream().findFirst();
+    }
+
+    /**
+     * The statements bypass Hibernate, cached employees and query results would still show the old state.
+     * Inside a transaction they are evicted again after the commit, as readers may have cached the old rows meanwhile.
+     */
+    private void evictCaches(Runnable evictEntities) {
+        Runnable evict = () -> {
+            evictEntities.run();
+            entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+        evict.run();
+    }
+
+    private static String productName(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Cannot determine the database", e);
+        }
+    }
+
+    private String update(String where) {
+        String update = "UPDATE users SET is_deleted = :deleted, version = version + 1 WHERE id IN (SELECT id FROM users WHERE " + where + ")";
+        return returning ? update + " RETURNING id" : "SELECT id FROM FINAL TABLE (" + update + ")";
+    }
+
+    private List<Integer> execute(String sql, MapSqlParameterSource parameters) {
+        List<Integer> ids = chunkTransaction.execute(status -> jdbcTemplate.queryForList(sql, parameters, Integer.class));
+        return ids == null ? List.of() : ids.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.util.LikePatterns;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.List;
+
+/**
+ * Selects employees for bulk operations. Every given condition has to match, absent ones are ignored.
+ *
+ * @param country exact country
+ * @param gender  gender
+ * @param ids     employee ids
+ * @param name    part of the name
+ */
+public record EmployeeCriteria(String country, Gender gender, List<Integer> ids, String name) {
+
+    public static EmployeeCriteria byCountry(String country) {
+        return new EmployeeCriteria(country, null, null, null);
+    }
+
+    public static EmployeeCriteria byId(Integer id) {
+        return new EmployeeCriteria(null, null, List.of(id), null);
+    }
+
+    public boolean isEmpty() {
+        return country == null && gender == null && (ids == null || ids.isEmpty()) && name == null;
+    }
+
+    /**
+     * Appends the country, gender and name conditions on the {@code users} table, each starting with
+     * {@code AND}, and binds their values. The ids are left to the caller.
+     */
+    void appendConditions(StringBuilder where, MapSqlParameterSource parameters) {
+        if (country != null) {
+            where.append(" AND country = :country");
+            parameters.addValue("country", country);
+        }
+        if (gender != null) {
+            where.append(" AND gender = :gender");
+            parameters.addValue("gender", gender.name());
+        }
+        if (name != null) {
+            where.append(" AND name LIKE :name");
+            parameters.addValue("name", LikePatterns.contains(name));
+        }
+    }
+}
@@ -1,32 +1,75 @@
 package com.example.demowithtests.repository;
 
 import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.service.search.EmployeeSearchRow;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Every read that returns employees declares its fetch plan: list queries join fetch
+ * {@code addresses} through an entity graph, while paged and streamed reads rely on
+ * {@code @BatchSize} on the collection, which loads the addresses of up to 100 employees per query.
+ */
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, JpaSpecificationExecutor<Employee>,
+        EmployeeBulkRepository, EmployeeStatsRepository {
+
+    @Override
+    @EntityGraph(attributePaths = "addresses")
+    List<Employee> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "addresses")
+    Optional<Employee> findById(Integer id);
 
     @Query(value = "select e from Employee e where e.country =?1")
     @EntityGraph(attributePaths = {"addresses"})
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Employee> findEmployeesByCountry(String country);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = "addresses")
     List<Employee> findByNameContaining(String name);
 
+    // the ILIKE variants and the ranked search are served by the pg_trgm GIN indexes of V13.
+    // Native reads are not filtered by Hibernate, they repeat the soft delete condition
+    @Query(value = "SELECT * FROM users WHERE name ILIKE :pattern AND is_deleted = false", nativeQuery = true)
+    List<Employee> findByNameILike(@Param("pattern") String pattern);
+
+    @Query(value = "SELECT * FROM users WHERE country ILIKE :pattern AND is_deleted = false",
+            countQuery = "SELECT count(*) FROM users WHERE country ILIKE :pattern AND is_deleted = false",
+            nativeQuery = true)
+    Page<Employee> findByCountryILike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT * FROM users " +
+            "WHERE (name ILIKE :pattern OR email ILIKE :pattern OR country ILIKE :pattern) AND is_deleted = false " +
+            "ORDER BY greatest(word_similarity(:query, name), word_similarity(:query, email), " +
+            "word_similarity(:query, country)) DESC, id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Employee> searchRanked(@Param("query") String query, @Param("pattern") String pattern, @Param("limit") int limit);
+
     @Query(value = "SELECT u.* FROM users u JOIN addresses a ON u.id = a.employee_id " +
-            "WHERE u.gender = :gender AND a.country = :country", nativeQuery = true)
+            "WHERE u.gender = :gender AND a.country = :country AND u.is_deleted = false", nativeQuery = true)
     /*@Query(value = "" +
             "select users.id, users.name, users.email, employee_id, addresses.country AS address_co, users.country AS users_co, gender " +
             "from users " +
@@ -35,60 +78,109 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
             "where users.gender = :gender and addresses.country = :country", nativeQuery = true)*/
     List<Employee> findByGender(String gender, String country);
 
-    @Query(value = "SELECT * FROM users WHERE SUBSTRING(country, 1, 1) = LOWER(SUBSTRING(country, 1, 1))",
-            nativeQuery = true)
+    // single-column reads, answered from the country/email indexes without building entities
+    @Query("select distinct e.country from Employee e where e.country is not null order by e.country")
+    List<String> findDistinctCountries();
+
+    @Query("select distinct e.country from Employee e where e.country like :pattern escape '\\' order by e.country")
+    List<String> findDistinctCountriesLike(@Param("pattern") String pattern);
+
+    @Query(value = "SELECT email FROM users WHERE email LIKE :pattern AND is_deleted = false ORDER BY id LIMIT 1", nativeQuery = true)
+    Optional<String> findFirstEmailLike(@Param("pattern") String pattern);
+
+    @Query("SELECT e FROM Employee e WHERE SUBSTRING(e.country, 1, 1) = LOWER(SUBSTRING(e.country, 1, 1))")
+    @EntityGraph(attributePaths = "addresses")
     List<Employee> findAllByCountryStartsWithLowerCase();
 
-    @Query(value = "SELECT * FROM users WHERE country NOT IN :countries", nativeQuery = true)
+    @Query("SELECT e FROM Employee e WHERE e.country NOT IN :countries")
+    @EntityGraph(attributePaths = "addresses")
     List<Employee> findAllByCountryNotIn(@Param("countries") List<String> countries);
 
-    @Query(value = "UPDATE users SET name = 'ПутинХуйло' WHERE country = 'Russian Federation'",  nativeQuery = true)
+    // native statements name the tables they touch, otherwise Hibernate drops the whole second-level cache
+    @Query(value = "UPDATE users SET name = 'ПутинХуйло', version = version + 1 WHERE country = 'Russian Federation'",  nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "users"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
     int updateByCountryRussia();
 
+    @EntityGraph(attributePaths = "addresses")
     Employee findByName(String name);
 
     Employee findEmployeeByEmailNotNull();
 
-    @Query("update Employee set name = ?1 where id = ?2")
+    @Query("update versioned Employee set name = ?1 where id = ?2")
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Transactional
-    Employee updateEmployeeByName(String name, Integer id);
+    int updateEmployeeByName(String name, Integer id);
 
     @NotNull
     Page<Employee> findAll(Pageable pageable);
 
-    @EntityGraph(attributePaths = {"addresses", "document"})
+    /**
+     * Streams every employee through a server-side cursor instead of materializing the table.
+     * Must be consumed inside a transaction, and the caller should detach rows it is done with.
+     */
+    @Query("select e from Employee e")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Employee> streamAll();
+
+    // bootstraps the in-memory search index without loading entities
+    @Query("select new com.example.demowithtests.service.search.EmployeeSearchRow(e.id, e.name, e.email, e.country) " +
+            "from Employee e")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<EmployeeSearchRow> streamSearchRows();
+
+    // refreshes the search index after a bulk change, deleted employees are filtered out like above
+    @Query("select new com.example.demowithtests.service.search.EmployeeSearchRow(e.id, e.name, e.email, e.country) " +
+            "from Employee e where e.id in :ids")
+    List<EmployeeSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "addresses")
+    List<Employee> findByIdIn(Collection<Integer> ids);
+
+    // a collection fetch would make Hibernate paginate in memory, addresses are batch fetched instead
+    @EntityGraph(attributePaths = "document")
     Page<Employee> findByName(String name, Pageable pageable);
 
     Page<Employee> findByCountryContaining(String country, Pageable pageable);
 
-    @Query(value = "SELECT * FROM users WHERE country = 'Ukraine'", nativeQuery = true)
+    @Query("SELECT e FROM Employee e WHERE e.country = 'Ukraine'")
+    @EntityGraph(attributePaths = "addresses")
     Optional<List<Employee>> findAllUkrainian();
 
-    @Query(value = "SELECT * FROM users WHERE country = 'Russian Federation'", nativeQuery = true)
+    @Query("SELECT e FROM Employee e WHERE e.country = 'Russian Federation'")
+    @EntityGraph(attributePaths = "addresses")
     Optional<List<Employee>> findAllRussian();
 
     @Query("SELECT e FROM Employee e WHERE e.name = 'Oleh' AND e.country = 'Ukraine'")
+    @EntityGraph(attributePaths = "addresses")
     Optional<List<Employee>> findAllUkrainianByNameOleh();
 
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.gender = 'F' AND e.country = 'Ukraine'")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     int countAllUkrainianWomen();
 
     @Query("SELECT e FROM Employee e WHERE e.name = 'Mario' AND e.country = 'Italy'")
+    @EntityGraph(attributePaths = "addresses")
     Optional<List<Employee>> findAllItalyByNameMario();
 
     @Query("SELECT e FROM Employee e WHERE e.gender = 'M' AND e.country = 'Belarus' AND e.isDeleted = true")
+    @EntityGraph(attributePaths = "addresses")
     Optional<List<Employee>> findAllDeletedBelarus();
 
     @Transactional
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query(value = "INSERT INTO users(name, email, country, gender) VALUES (:name, :email, :country, :gender)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "users"))
     //Integer saveEmployee(String name, String email, String country, String gender);
     void saveEmployee(String name, String email, String country, String gender);
 
     @Transactional
     @Modifying(flushAutomatically = true, clearAutomatically = true)
-    @Query(value = "UPDATE users SET name = ?1, email = ?2, country = ?3 WHERE id = ?4", nativeQuery = true)
+    @Query(value = "UPDATE users SET name = ?1, email = ?2, country = ?3, version = version + 1 WHERE id = ?4", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "users"))
     Integer updateEmployee(String name, String email, String country, Integer id);
 
 }
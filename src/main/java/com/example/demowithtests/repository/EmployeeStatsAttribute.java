@@ -0,0 +1,20 @@
+package com.example.demowithtests.repository;
+
+/**
+ * Employee attributes the statistics can be grouped by.
+ */
+public enum EmployeeStatsAttribute {
+    COUNTRY("country"),
+    GENDER("gender"),
+    DELETED("isDeleted");
+
+    private final String attribute;
+
+    EmployeeStatsAttribute(String attribute) {
+        this.attribute = attribute;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+}
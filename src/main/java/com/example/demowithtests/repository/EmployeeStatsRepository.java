@@ -0,0 +1,16 @@
+package com.example.demowithtests.repository;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aggregates computed by the database.
+ */
+public interface EmployeeStatsRepository {
+
+    /**
+     * Counts employees with a single {@code GROUP BY} over the given dimensions, ordered by them.
+     * Without dimensions the result is one row with the total count.
+     */
+    List<EmployeeStatsRow> countGroupedBy(Set<EmployeeStatsAttribute> dimensions);
+}
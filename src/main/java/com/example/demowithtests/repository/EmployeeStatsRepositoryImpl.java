@@ -0,0 +1,66 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+class EmployeeStatsRepositoryImpl implements EmployeeStatsRepository {
+
+    private final EntityManager entityManager;
+
+    EmployeeStatsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<EmployeeStatsRow> countGroupedBy(Set<EmployeeStatsAttribute> dimensions) {
+        // enum order keeps the statement, and so its query cache entry, independent of the caller's set order
+        Set<EmployeeStatsAttribute> grouped = dimensions.isEmpty()
+                ? EnumSet.noneOf(EmployeeStatsAttribute.class)
+                : EnumSet.copyOf(dimensions);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+
+        List<Expression<?>> groupBy = new ArrayList<>();
+        List<Selection<?>> select = new ArrayList<>();
+        for (EmployeeStatsAttribute dimension : grouped) {
+            Expression<?> path = employee.get(dimension.attribute());
+            groupBy.add(path);
+            select.add(path.alias(dimension.name()));
+        }
+        select.add(builder.count(employee).alias("count"));
+
+        query.multiselect(select)
+                .groupBy(groupBy)
+                .orderBy(groupBy.stream().map(builder::asc).toList());
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_CACHEABLE, true)
+                .getResultStream()
+                .map(row -> new EmployeeStatsRow(
+                        get(row, grouped, EmployeeStatsAttribute.COUNTRY, String.class),
+                        get(row, grouped, EmployeeStatsAttribute.GENDER, Gender.class),
+                        get(row, grouped, EmployeeStatsAttribute.DELETED, Boolean.class),
+                        row.get("count", Long.class)))
+                .toList();
+    }
+
+    private static <T> T get(Tuple row, Set<EmployeeStatsAttribute> grouped, EmployeeStatsAttribute dimension, Class<T> type) {
+        return grouped.contains(dimension) ? row.get(dimension.name(), type) : null;
+    }
+}
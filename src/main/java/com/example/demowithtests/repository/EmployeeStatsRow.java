@@ -0,0 +1,9 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.Gender;
+
+/**
+ * Employee count of one group, attributes that are not grouped by are {@code null}.
+ */
+public record EmployeeStatsRow(String country, Gender gender, Boolean deleted, long count) {
+}
@@ -0,0 +1,7 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.MailJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MailJobRepository extends JpaRepository<MailJob, String> {
+}
@@ -0,0 +1,52 @@
+package com.example.demowithtests.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The {@code mail_outbox} table as a queue shared by every instance of the application. A message is claimed with a
+ * conditional update before it is sent, so it is never sent twice at the same time; a claim expires after a lease,
+ * so the messages of an instance that died are picked up again.
+ */
+public interface MailOutboxQueue {
+
+    /**
+     * Adds one message per active employee with an email matching {@code criteria}, all of them with a single
+     * {@code INSERT ... SELECT}: the employees never leave the database. Without criteria every employee is
+     * a recipient.
+     *
+     * @return number of recipients
+     */
+    int enqueue(String jobId, EmployeeCriteria criteria);
+
+    /**
+     * Claims up to {@code limit} messages whose next attempt is due, oldest first, and counts the attempt.
+     *
+     * @param lease time after which a claimed message that is neither sent nor failed is due again
+     */
+    List<ClaimedMessage> claimDue(int limit, Duration lease);
+
+    /**
+     * Records the messages as sent, except those whose lease ran out and that were claimed again.
+     */
+    void markSent(List<ClaimedMessage> messages);
+
+    /**
+     * Makes the message due again at {@code nextAttemptAt}, unless its lease ran out and it was claimed again.
+     */
+    void markRetry(long id, int attempt, Instant nextAttemptAt, String error);
+
+    /**
+     * Gives up on the message, unless its lease ran out and it was claimed again.
+     */
+    void markFailed(long id, int attempt, String error);
+
+    /**
+     * A message to send, with the subject and the body of its job.
+     *
+     * @param attempt 1 for the first attempt
+     */
+    record ClaimedMessage(long id, String recipient, String name, int attempt, String subject, String body) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.MailStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+class MailOutboxQueueImpl implements MailOutboxQueue {
+
+    private static final int MAX_ERROR_LENGTH = 1_000;
+
+    private static final String DUE = "status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    MailOutboxQueueImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int enqueue(String jobId, EmployeeCriteria criteria) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("status", MailStatus.PENDING.name())
+                .addValue("now", now());
+        StringBuilder where = new StringBuilder("is_deleted = false AND email IS NOT NULL AND email <> ''");
+        if (criteria != null) {
+            criteria.appendConditions(where, parameters);
+            if (criteria.ids() != null && !criteria.ids().isEmpty()) {
+                where.append(" AND id IN (:ids)");
+                parameters.addValue("ids", criteria.ids().stream().filter(Objects::nonNull).distinct().toList());
+            }
+        }
+        return jdbcTemplate.update("INSERT INTO mail_outbox (job_id, employee_id, recipient, name, status, attempts, next_attempt_at)"
+                + " SELECT :jobId, id, email, name, :status, 0, :now FROM users WHERE " + where + " ORDER BY id", parameters);
+    }
+
+    @Override
+    public List<ClaimedMessage> claimDue(int limit, Duration lease) {
+        OffsetDateTime now = now();
+        List<ClaimedMessage> due = jdbcTemplate.query("SELECT o.id, o.recipient, o.name, o.attempts, j.subject, j.body"
+                        + " FROM mail_outbox o JOIN mail_jobs j ON j.id = o.job_id"
+                        + " WHERE o.status IN ('PENDING', 'SENDING') AND o.next_attempt_at <= :now"
+                        + " ORDER BY o.next_attempt_at, o.id LIMIT :limit",
+                new MapSqlParameterSource("now", now).addValue("limit", limit),
+                (rs, rowNum) -> new ClaimedMessage(rs.getLong("id"), rs.getString("recipient"), rs.getString("name"),
+                        rs.getInt("attempts") + 1, rs.getString("subject"), rs.getString("body")));
+        if (due.isEmpty()) {
+            return due;
+        }
+        // the attempt count doubles as a version: another instance claiming the same row first changed it
+        SqlParameterSource[] claims = due.stream()
+                .map(message -> new MapSqlParameterSource()
+                        .addValue("id", message.id())
+                        .addValue("attempts", message.attempt() - 1)
+                        .addValue("now", now)
+                        .addValue("leaseEnd", now.plus(lease)))
+                .toArray(SqlParameterSource[]::new);
+        int[] claimed = jdbcTemplate.batchUpdate("UPDATE mail_outbox SET status = 'SENDING', attempts = attempts + 1,"
+                + " next_attempt_at = :leaseEnd WHERE id = :id AND attempts = :attempts AND " + DUE, claims);
+        List<ClaimedMessage> messages = new ArrayList<>(due.size());
+        for (int i = 0; i < due.size(); i++) {
+            if (claimed[i] != 0) {
+                messages.add(due.get(i));
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public void markSent(List<ClaimedMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = now();
+        SqlParameterSource[] sent = messages.stream()
+                .map(message -> new MapSqlParameterSource()
+                        .addValue("id", message.id())
+                        .addValue("attempt", message.attempt())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE mail_outbox SET status = 'SENT', sent_at = :now, last_error = NULL"
+                + " WHERE id = :id AND attempts = :attempt", sent);
+    }
+
+    @Override
+    public void markRetry(long id, int attempt, Instant nextAttemptAt, String error) {
+        jdbcTemplate.update("UPDATE mail_outbox SET status = 'PENDING', next_attempt_at = :next, last_error = :error"
+                        + " WHERE id = :id AND attempts = :attempt",
+                new MapSqlParameterSource("id", id)
+                        .addValue("attempt", attempt)
+                        .addValue("next", nextAttemptAt.atOffset(ZoneOffset.UTC))
+                        .addValue("error", truncate(error)));
+    }
+
+    @Override
+    public void markFailed(long id, int attempt, String error) {
+        jdbcTemplate.update("UPDATE mail_outbox SET status = 'FAILED', last_error = :error"
+                        + " WHERE id = :id AND attempts = :attempt",
+                new MapSqlParameterSource("id", id)
+                        .addValue("attempt", attempt)
+                        .addValue("error", truncate(error)));
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
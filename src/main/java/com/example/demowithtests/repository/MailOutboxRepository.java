@@ -0,0 +1,23 @@
+package com.example.demowithtests.repository;
+
+import com.example.demowithtests.domain.MailOutboxMessage;
+import com.example.demowithtests.domain.MailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long>, MailOutboxQueue {
+
+    /**
+     * @return pairs of {@link MailStatus} and recipient count
+     */
+    @Query("SELECT m.status, COUNT(m) FROM MailOutboxMessage m WHERE m.jobId = :jobId GROUP BY m.status")
+    List<Object[]> countByStatus(@Param("jobId") String jobId);
+
+    List<MailOutboxMessage> findByJobIdOrderById(String jobId, Pageable pageable);
+
+    List<MailOutboxMessage> findByJobIdAndStatusOrderById(String jobId, MailStatus status, Pageable pageable);
+}
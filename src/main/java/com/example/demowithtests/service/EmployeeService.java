@@ -2,16 +2,40 @@ package com.example.demowithtests.service;
 
 import com.example.demowithtests.domain.Document;
 import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.dto.EmployeeCriteriaDto;
+import com.example.demowithtests.dto.EmployeeStatsDimension;
+import com.example.demowithtests.dto.EmployeeStatsDto;
+import com.example.demowithtests.dto.MailJobDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee create(Employee employee);
+
+    /**
+     * Checks the fields {@link #create(Employee)} requires beyond bean validation.
+     *
+     * @param employee employee about to be created
+     * @throws com.example.demowithtests.util.exception.GenderNotFoundException      if gender is missing
+     * @throws com.example.demowithtests.util.exception.CountryNotSpecifiedException if country is missing
+     */
+    void checkRequiredFields(Employee employee);
+
+    /**
+     * Creates all employees in one transaction, flushing them to the database in JDBC-batch sized chunks.
+     *
+     * @param employees employees to create, each must pass {@link #checkRequiredFields(Employee)}
+     * @return created employees with ids, in the order they were given
+     */
+    List<Employee> createAll(List<Employee> employees);
     void createAndSave(Employee employee);
 
     void addDocumentAndHistory(Employee employee, Document document);
@@ -22,12 +46,45 @@ public interface EmployeeService {
 
     List<Employee> getAll();
 
+    /**
+     * Passes every employee to the consumer one by one, keeping memory usage constant.
+     *
+     * @param consumer callback invoked for each employee inside the read transaction
+     */
+    void streamAll(Consumer<Employee> consumer);
+
     Page<Employee> getAllWithPagination(Pageable pageable);
 
+    /**
+     * Keyset (seek) pagination over all employees ordered by id.
+     *
+     * @param after cursor returned with the previous window, {@code null} for the first one
+     * @param size  number of entries in the window
+     * @return window of employees, its last position is the cursor for the next call
+     */
+    Window<Employee> getAllAfter(String after, int size);
+
     Employee getById(Integer id);
 
+    /**
+     * Replaces name, email and country with one conditional statement.
+     *
+     * @param plane new values, a non-null {@code version} makes the update conditional on it
+     * @return the updated employee without its associations
+     * @throws com.example.demowithtests.util.exception.ResourceConflictException if the version changed meanwhile
+     */
     Employee updateById(Integer id, Employee plane);
 
+    /**
+     * Applies a JSON merge patch (RFC 7396) of name, email, country and gender with one conditional statement.
+     * A {@code null} value clears the field, absent fields stay as they are.
+     *
+     * @param expectedVersion version the caller last saw, {@code null} to update unconditionally
+     * @return the updated employee without its associations
+     * @throws com.example.demowithtests.util.exception.ResourceConflictException if the version changed meanwhile
+     */
+    Employee patch(Integer id, Map<String, Object> mergePatch, Long expectedVersion);
+
     Employee removeById(Integer id);
     Employee softRemoveById(Integer id);
     void removeAll();
@@ -44,35 +101,93 @@ public interface EmployeeService {
      */
     Page<Employee> findByCountryContaining(String country, int page, int size, List<String> sortList, String sortOrder);
 
+    /**
+     * Keyset counterpart of {@link #findByCountryContaining(String, int, int, List, String)}:
+     * seeks on {@code (sort columns, id)} instead of skipping {@code page * size} rows.
+     * Employees without a value in a sort column come last, in either order.
+     *
+     * @param country   Filter for the country if required
+     * @param after     cursor returned with the previous window, {@code null} for the first one
+     * @param size      number of entries in the window
+     * @param sortList  list of columns to sort on
+     * @param sortOrder sort order. Can be ASC or DESC
+     * @return window of employees, its last position is the cursor for the next call
+     */
+    Window<Employee> findByCountryContaining(String country, String after, int size, List<String> sortList, String sortOrder);
+
+    /**
+     * Case-insensitive variant of {@link #findByCountryContaining(String, int, int, List, String)}.
+     */
+    Page<Employee> findByCountryContainingIgnoreCase(String country, int page, int size, List<String> sortList, String sortOrder);
+
     /**
      * Get all the countries of all the employees.
      *
-     * @return A list of all the countries that employees are from.
+     * @return A list of the distinct countries that employees are from, in alphabetical order.
      */
     List<String> getAllEmployeeCountry();
 
     /**
-     * It returns a list of countries sorted by name.
+     * It returns the countries starting with "U" sorted by name.
      *
-     * @return A list of countries in alphabetical order.
+     * @return A list of distinct countries in alphabetical order.
      */
     List<String> getSortCountry();
 
+    /**
+     * @return the first (by id) email ending with ".com"
+     */
     Optional<String> findEmails();
 
+    /**
+     * Counts employees grouped by the given dimensions, computed by the database.
+     *
+     * @param groupBy dimensions to group by, none gives the total count
+     */
+    List<EmployeeStatsDto> getStats(Set<EmployeeStatsDimension> groupBy);
+
     List<Employee> filterByCountry(String country);
 
-    Set<String> sendEmailsAllUkrainian();
+    /**
+     * Queues the reminder to update their information to every employee from Ukraine, see
+     * {@link com.example.demowithtests.service.mail.MailJobService#start}.
+     */
+    MailJobDto sendEmailsAllUkrainian();
 
     List<Employee> findByNameContaining(String name);
 
+    List<Employee> findByNameContainingIgnoreCase(String name);
+
+    /**
+     * Employees whose name, email or country contains the query, ignoring case,
+     * the closest matches first. PostgreSQL only.
+     *
+     * @param query text typed into the search box
+     * @param limit maximum number of returned employees
+     */
+    List<Employee> search(String query, int limit);
+
     void updateEmployeeByName(String name, Integer id);
 
     void updateRussianEmployeeByName(List<Employee> employee);
 
-    List<Employee> softRemoveByCountry();
+    List<Integer> softRemoveByCountry();
+
+    List<Integer> cancelSoftDeleteByCountry();
 
-    List<Employee> cancelSoftDeleteByCountry();
+    /**
+     * Marks the employees matching {@code criteria} as deleted with set-based updates, without loading them.
+     *
+     * @return ids of the employees that were not deleted before
+     */
+    List<Integer> softRemoveBy(EmployeeCriteriaDto criteria);
+
+    /**
+     * Counterpart of {@link #softRemoveBy(EmployeeCriteriaDto)}.
+     *
+     * @return ids of the employees that were deleted before
+     */
+    List<Integer> restoreBy(EmployeeCriteriaDto criteria);
 
     List<Employee> findAllUkrainianOleh();
 
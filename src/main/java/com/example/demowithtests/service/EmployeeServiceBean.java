@@ -4,28 +4,52 @@ import com.example.demowithtests.domain.ActionType;
 import com.example.demowithtests.domain.Document;
 import com.example.demowithtests.domain.DocumentHistory;
 import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.EmployeeCriteriaDto;
+import com.example.demowithtests.dto.EmployeeStatsDimension;
+import com.example.demowithtests.dto.EmployeeStatsDto;
+import com.example.demowithtests.dto.EmployeeUpdateDto;
+import com.example.demowithtests.dto.MailJobDto;
 import com.example.demowithtests.repository.DocumentRepository;
+import com.example.demowithtests.repository.EmployeeCriteria;
 import com.example.demowithtests.repository.EmployeeRepository;
-import com.example.demowithtests.service.emailService.EmailSenderService;
+import com.example.demowithtests.repository.EmployeeStatsAttribute;
+import com.example.demowithtests.service.mail.MailJobService;
+import com.example.demowithtests.service.search.EmployeeSearchIndex;
+import com.example.demowithtests.service.search.EmployeeSearchRow;
 import com.example.demowithtests.util.annotations.entity.ActivateCustomAnnotations;
+import com.example.demowithtests.util.annotations.entity.IncludeDeleted;
 import com.example.demowithtests.util.annotations.entity.Name;
 import com.example.demowithtests.util.annotations.entity.ToLowerCase;
+import com.example.demowithtests.util.LikePatterns;
 import com.example.demowithtests.util.exception.CountryNotSpecifiedException;
 import com.example.demowithtests.util.exception.GenderNotFoundException;
+import com.example.demowithtests.util.exception.ResourceConflictException;
 import com.example.demowithtests.util.exception.ResourceNotFoundException;
 import com.example.demowithtests.util.exception.ResourceWasDeletedException;
+import com.example.demowithtests.util.pagination.KeysetCursor;
+import com.example.demowithtests.util.pagination.KeysetSpecifications;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -34,8 +58,27 @@ import java.util.stream.Stream;
 public class EmployeeServiceBean implements EmployeeService {
 
     private final EmployeeRepository employeeRepository;
-    private final EmailSenderService emailSenderService;
+    private final MailJobService mailJobService;
     private final DocumentRepository documentRepository;
+    private final EntityManager entityManager;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final Validator validator;
+
+    // equal to hibernate.jdbc.batch_size
+    private static final int CREATE_CHUNK_SIZE = 50;
+    // equal to @BatchSize of Employee.addresses
+    private static final int STREAM_CHUNK_SIZE = 100;
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1_000;
+
+    // rows changed by one statement of a bulk soft delete/restore
+    private static final int BULK_CHUNK_SIZE = 1_000;
+
+    private static final String RUSSIA = "Russian Federation";
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email", "country", "gender");
 
     @Override
     public void addDocumentAndHistory(Employee employee, Document document) {
@@ -60,6 +103,7 @@ public class EmployeeServiceBean implements EmployeeService {
 //        }).orElseThrow(() ->new EntityNotFoundException("Employee not found with id " + id));
 //    }
     @Override
+    @Transactional
     public Employee deleteDocumentByUserId(Integer id) {
         return employeeRepository.findById(id).map(entity -> {
             Document document = entity.getDocument();
@@ -81,6 +125,7 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @Transactional
     public Employee restoreDocumentByUserId(Integer id) {
         return employeeRepository.findById(id).map(entity -> {
             Document document = entity.getDocument();
@@ -111,13 +156,46 @@ public class EmployeeServiceBean implements EmployeeService {
 
     // @Transactional(propagation = Propagation.MANDATORY)
     public Employee create(Employee employee) {
+        checkRequiredFields(employee);
+        return employeeRepository.save(employee);
+//        return employeeRepository.saveAndFlush(employee);
+    }
+
+    @Override
+    public void checkRequiredFields(Employee employee) {
         if (employee.getGender() == null) {
             throw new GenderNotFoundException("Gender is required for creating an employee. ");
         } else if (employee.getCountry() == null || employee.getCountry().isEmpty()) {
             throw new CountryNotSpecifiedException("You must specify an existing country. ");
         }
-        return employeeRepository.save(employee);
-//        return employeeRepository.saveAndFlush(employee);
+    }
+
+    @Override
+    @Transactional
+    @ActivateCustomAnnotations({Name.class, ToLowerCase.class})
+    public List<Employee> createAll(List<Employee> employees) {
+        employees.forEach(this::checkRequiredFields);
+        List<Employee> created = new ArrayList<>(employees.size());
+        for (int from = 0; from < employees.size(); from += CREATE_CHUNK_SIZE) {
+            var chunk = employees.subList(from, Math.min(from + CREATE_CHUNK_SIZE, employees.size()));
+            chunk.stream()
+                    .map(Employee::getDocument)
+                    .filter(Objects::nonNull)
+                    .forEach(document -> addHistory(document, ActionType.ADDED));
+            created.addAll(employeeRepository.saveAll(chunk));
+            // send the chunk as one JDBC batch and keep the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return created;
+    }
+
+    private void addHistory(Document document, ActionType actionType) {
+        DocumentHistory historyEntry = new DocumentHistory();
+        historyEntry.setTimestamp(LocalDateTime.now());
+        historyEntry.setActionType(actionType);
+        historyEntry.setDocument(document);
+        document.getHistory().add(historyEntry);
     }
 
     /**
@@ -130,98 +208,165 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAll() {
         return employeeRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Employee> consumer) {
+        List<Employee> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                chunk.add(employee);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    consumeChunk(chunk, consumer);
+                }
+            });
+        }
+        consumeChunk(chunk, consumer);
+    }
+
+    private void consumeChunk(List<Employee> chunk, Consumer<Employee> consumer) {
+        withAddresses(chunk);
+        chunk.forEach(employee -> {
+            consumer.accept(employee);
+            entityManager.detach(employee);
+        });
+        chunk.clear();
+    }
+
+    /**
+     * Initializes the lazy addresses while the session is open. Thanks to {@code @BatchSize}
+     * the first access loads the addresses of up to 100 employees of the result in one query.
+     */
+    private static <T extends Iterable<Employee>> T withAddresses(T employees) {
+        employees.forEach(employee -> Hibernate.initialize(employee.getAddresses()));
+        return employees;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<Employee> getAllWithPagination(Pageable pageable) {
         log.debug("getAllWithPagination() - start: pageable = {}", pageable);
-        Page<Employee> list = employeeRepository.findAll(pageable);
+        Page<Employee> list = withAddresses(employeeRepository.findAll(pageable));
         log.debug("getAllWithPagination() - end: list = {}", list);
         return list;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Window<Employee> getAllAfter(String after, int size) {
+        return scroll(Specification.where(null), after, size, Sort.unsorted());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Employee getById(Integer id) {
+        // a load by id is answered by the second-level cache, the soft delete filter only applies to queries
         var employee = employeeRepository.findById(id)
-                // .orElseThrow(() -> new EntityNotFoundException("Employee not found with id = " + id));
+                .filter(found -> !found.getIsDeleted())
                 .orElseThrow(ResourceNotFoundException::new);
-        if (employee.getIsDeleted()) {
-            throw new EntityNotFoundException("Employee was deleted with id = " + id);
-        }
+        // a cache hit ignores the entity graph, the addresses come from their collection cache instead
+        Hibernate.initialize(employee.getAddresses());
         return employee;
     }
 
     @Override
+    @Transactional
     public Employee updateById(Integer id, Employee employee) {
-        return employeeRepository.findById(id)
-                .map(entity -> {
-                    entity.setName(employee.getName());
-                    entity.setEmail(employee.getEmail());
-                    entity.setCountry(employee.getCountry());
-                    return employeeRepository.save(entity);
-                })
-                .orElseThrow(() -> new EntityNotFoundException("Employee not found with id = " + id));
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("name", employee.getName());
+        columns.put("email", employee.getEmail());
+        columns.put("country", employee.getCountry());
+        return update(id, columns, employee.getVersion());
+    }
+
+    @Override
+    @Transactional
+    public Employee patch(Integer id, Map<String, Object> mergePatch, Long expectedVersion) {
+        Map<String, Object> columns = new HashMap<>();
+        mergePatch.forEach((field, value) -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field " + field + " cannot be patched");
+            }
+            Object column = "gender".equals(field) && value != null ? Gender.valueOf(value.toString()) : value;
+            // same constraints as a full update
+            var violations = validator.validateValue(EmployeeUpdateDto.class, field, column);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            columns.put(field, column);
+        });
+        return update(id, columns, expectedVersion);
+    }
+
+    private Employee update(Integer id, Map<String, Object> columns, Long expectedVersion) {
+        Employee updated = employeeRepository.updateColumns(id, columns, expectedVersion)
+                .orElseThrow(() -> {
+                    // a second statement only when the write did not happen, to tell why
+                    var current = employeeRepository.findById(id).filter(employee -> !employee.getIsDeleted());
+                    if (current.isEmpty()) {
+                        return new ResourceNotFoundException();
+                    }
+                    return new ResourceConflictException("Employee with id = " + id + " has version "
+                            + current.get().getVersion() + ", not " + expectedVersion);
+                });
+        employeeSearchIndex.putAfterCommit(
+                new EmployeeSearchRow(updated.getId(), updated.getName(), updated.getEmail(), updated.getCountry()));
+        return updated;
     }
 
     @Override
     public Employee removeById(Integer id) {
-        //repository.deleteById(id);
-        var employee = employeeRepository.findById(id)
-//                 .orElseThrow(() -> new EntityNotFoundException("Employee not found with id = " + id));
-                .orElseThrow(ResourceWasDeletedException::new);
-        employee.setIsDeleted(Boolean.TRUE);
-//        employeeRepository.delete(employee);
-        employeeRepository.save(employee);
-        return employee;
+        return markDeleted(id);
     }
 
     @Override
     public Employee softRemoveById(Integer id) {
-        var employee = employeeRepository.findById(id)
-                .orElseThrow(ResourceWasDeletedException::new);
-        if (Boolean.TRUE.equals(employee.getIsDeleted())) {
-            throw new EntityNotFoundException("Employee not found with id = " + id);
-        } else {
-            employee.setIsDeleted(true);
-            employeeRepository.save(employee);
+        return markDeleted(id);
+    }
+
+    // one UPDATE instead of select, merge and update; a missing or already deleted employee changes nothing
+    private Employee markDeleted(Integer id) {
+        List<Integer> changed = employeeRepository.updateDeletedFlag(EmployeeCriteria.byId(id), true, 1);
+        if (changed.isEmpty()) {
+            throw new ResourceWasDeletedException();
         }
-        return employee;
+        employeeSearchIndex.refreshAfterCommit(changed);
+        return Employee.builder().id(id).isDeleted(true).build();
     }
 
     @Override
-    public List<Employee> softRemoveByCountry() {
-        var russians = employeeRepository.findAllRussian()
-                .orElseThrow(() -> new EntityNotFoundException("Employees from Russia not found!"));
+    public List<Integer> softRemoveByCountry() {
+        return updateDeletedFlag(EmployeeCriteria.byCountry(RUSSIA), true);
+    }
 
-        for (Employee employee : russians) {
-            if (Boolean.TRUE.equals(employee.getIsDeleted())) {
-                throw new EntityNotFoundException("Employee not found ");
-            } else {
-                employee.setIsDeleted(true);
-                employeeRepository.save(employee);
-            }
-        }
+    @Override
+    public List<Integer> cancelSoftDeleteByCountry() {
+        return updateDeletedFlag(EmployeeCriteria.byCountry(RUSSIA), false);
+    }
 
-        return russians;
+    @Override
+    public List<Integer> softRemoveBy(EmployeeCriteriaDto criteria) {
+        return updateDeletedFlag(toCriteria(criteria), true);
     }
 
     @Override
-    public List<Employee> cancelSoftDeleteByCountry() {
-        var russians = employeeRepository.findAllRussian()
-                .orElseThrow(() -> new EntityNotFoundException("Employees from Russia not found!"));
+    public List<Integer> restoreBy(EmployeeCriteriaDto criteria) {
+        return updateDeletedFlag(toCriteria(criteria), false);
+    }
 
-        for (Employee employee : russians) {
-            if (!Boolean.TRUE.equals(employee.getIsDeleted())) {
-                throw new EntityNotFoundException("Employee not found ");
-            } else {
-                employee.setIsDeleted(false);
-                employeeRepository.save(employee);
-            }
-        }
+    // the bulk update bypasses the JPA listener that keeps the search index current
+    private List<Integer> updateDeletedFlag(EmployeeCriteria criteria, boolean deleted) {
+        List<Integer> changed = employeeRepository.updateDeletedFlag(criteria, deleted, BULK_CHUNK_SIZE);
+        employeeSearchIndex.refreshAfterCommit(changed);
+        return changed;
+    }
 
-        return russians;
+    private static EmployeeCriteria toCriteria(EmployeeCriteriaDto criteria) {
+        return new EmployeeCriteria(criteria.country(), criteria.gender(), criteria.ids(), criteria.name());
     }
 
     @Override
@@ -235,17 +380,58 @@ public class EmployeeServiceBean implements EmployeeService {
     }*/
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Employee> findByCountryContaining(String country, int page, int size, List<String> sortList, String sortOrder) {
         // create Pageable object using the page, size and sort details
         Pageable pageable = PageRequest.of(page, size, Sort.by(createSortOrder(sortList, sortOrder)));
         // fetch the page object by additionally passing pageable with the filters
-        return employeeRepository.findByCountryContaining(country, pageable);
+        return withAddresses(employeeRepository.findByCountryContaining(country, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Employee> findByCountryContainingIgnoreCase(String country, int page, int size, List<String> sortList, String sortOrder) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(createSortOrder(sortList, sortOrder)));
+        return withAddresses(employeeRepository.findByCountryILike(LikePatterns.contains(country), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Employee> findByCountryContaining(String country, String after, int size, List<String> sortList, String sortOrder) {
+        Specification<Employee> byCountry = (root, query, cb) ->
+                country == null ? null : cb.like(root.get("country"), "%" + country + "%");
+        return scroll(byCountry, after, size, Sort.by(createSortOrder(sortList, sortOrder)));
+    }
+
+    private Window<Employee> scroll(Specification<Employee> specification, String after, int size, Sort sort) {
+        // id makes the keyset unique, so the seek is always on (sort key, id)
+        Sort keysetSort = sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(
+                sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC), "id"));
+        var keys = KeysetCursor.decode(after, keysetSort);
+        List<Employee> rows = employeeRepository.findBy(
+                specification.and(KeysetSpecifications.seekAfter(keys, keysetSort)),
+                // ordered by the seek specification, nulls included
+                query -> query.limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Employee> content = hasNext ? rows.subList(0, size) : rows;
+        withAddresses(content);
+        return Window.from(content, index -> ScrollPosition.forward(keysOf(content.get(index), keysetSort)), hasNext);
+    }
+
+    private static Map<String, Object> keysOf(Employee employee, Sort sort) {
+        var accessor = PropertyAccessorFactory.forBeanPropertyAccess(employee);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), accessor.getPropertyValue(order.getProperty())));
+        return keys;
     }
 
     private List<Sort.Order> createSortOrder(List<String> sortList, String sortDirection) {
         List<Sort.Order> sorts = new ArrayList<>();
         Sort.Direction direction;
         for (String sort : sortList) {
+            if (sort.isBlank()) {
+                continue;
+            }
             if (sortDirection != null) {
                 direction = Sort.Direction.fromString(sortDirection);
             } else {
@@ -257,74 +443,62 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<String> getAllEmployeeCountry() {
         log.info("getAllEmployeeCountry() - start:");
-        List<Employee> employeeList = employeeRepository.findAll();
-        List<String> countries = employeeList.stream()
-                .map(country -> country.getCountry())
-                .collect(Collectors.toList());
-        /*List<String> countries = employeeList.stream()
-                .map(Employee::getCountry)
-                //.sorted(Comparator.naturalOrder())
-                .collect(Collectors.toList());*/
-
-        log.info("getAllEmployeeCountry() - end: countries = {}", countries);
+        List<String> countries = employeeRepository.findDistinctCountries();
+        log.info("getAllEmployeeCountry() - end: countries = {}", countries.size());
         return countries;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<String> getSortCountry() {
-        List<Employee> employeeList = employeeRepository.findAll();
-        return employeeList.stream()
-                .map(Employee::getCountry)
-                .filter(c -> c.startsWith("U"))
-                .sorted(Comparator.naturalOrder())
-                .collect(Collectors.toList());
+        return employeeRepository.findDistinctCountriesLike(LikePatterns.startsWith("U"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<String> findEmails() {
-        var employeeList = employeeRepository.findAll();
+        return Optional.of(employeeRepository.findFirstEmailLike(LikePatterns.endsWith(".com")).orElse("error?"));
+    }
 
-        var emails = employeeList.stream()
-                .map(Employee::getEmail)
-                .collect(Collectors.toList());
+    @Override
+    @IncludeDeleted
+    @Transactional(readOnly = true)
+    public List<EmployeeStatsDto> getStats(Set<EmployeeStatsDimension> groupBy) {
+        Set<EmployeeStatsAttribute> attributes = EnumSet.noneOf(EmployeeStatsAttribute.class);
+        groupBy.forEach(dimension -> attributes.add(toAttribute(dimension)));
+        return employeeRepository.countGroupedBy(attributes).stream()
+                .map(row -> new EmployeeStatsDto(row.country(), row.gender(), row.deleted(), row.count()))
+                .toList();
+    }
 
-        var opt = emails.stream()
-                .filter(s -> s.endsWith(".com"))
-                .findFirst()
-                .orElse("error?");
-        return Optional.ofNullable(opt);
+    private static EmployeeStatsAttribute toAttribute(EmployeeStatsDimension dimension) {
+        return switch (dimension) {
+            case COUNTRY -> EmployeeStatsAttribute.COUNTRY;
+            case GENDER -> EmployeeStatsAttribute.GENDER;
+            case DELETED -> EmployeeStatsAttribute.DELETED;
+        };
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> filterByCountry(String country) {
         return employeeRepository.findEmployeesByCountry(country);
     }
 
     @Override
-    public Set<String> sendEmailsAllUkrainian() {
-        var ukrainians = employeeRepository.findAllUkrainian()
-                .orElseThrow(() -> new EntityNotFoundException("Employees from Ukraine not found!"));
-        var emails = new HashSet<String>();
-        ukrainians.forEach(employee -> {
-            emailSenderService.sendEmail(
-                    /*employee.getEmail(),*/
-                    "kaluzny.oleg@gmail.com", //для тесту
-                    "Need to update your information",
-                    String.format(
-                            "Dear " + employee.getName() + "!\n" +
-                                    "\n" +
-                                    "The expiration date of your information is coming up soon. \n" +
-                                    "Please. Don't delay in updating it. \n" +
-                                    "\n" +
-                                    "Best regards,\n" +
-                                    "Ukrainian Info Service.")
-            );
-            emails.add(employee.getEmail());
-        });
+    public MailJobDto sendEmailsAllUkrainian() {
+        return mailJobService.start(EmployeeCriteria.byCountry("Ukraine"), "Need to update your information",
+                """
+                        Dear {name}!
+
+                        The expiration date of your information is coming up soon.\s
+                        Please. Don't delay in updating it.\s
 
-        return emails;
+                        Best regards,
+                        Ukrainian Info Service.""");
     }
 
     /**
@@ -332,10 +506,50 @@ public class EmployeeServiceBean implements EmployeeService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> findByNameContaining(String name) {
+        if (employeeSearchIndex.isReady()) {
+            return findAllByIds(employeeSearchIndex.findIdsByNameContaining(name, false));
+        }
         return employeeRepository.findByNameContaining(name);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> findByNameContainingIgnoreCase(String name) {
+        if (employeeSearchIndex.isReady()) {
+            return findAllByIds(employeeSearchIndex.findIdsByNameContaining(name, true));
+        }
+        return withAddresses(employeeRepository.findByNameILike(LikePatterns.contains(name)));
+    }
+
+    /**
+     * Loads the employees found by the search index by primary key, in chunks to keep the IN lists bounded.
+     */
+    private List<Employee> findAllByIds(int[] ids) {
+        List<Employee> employees = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Integer> chunk = Arrays.stream(ids, from, Math.min(ids.length, from + ID_LOOKUP_CHUNK_SIZE))
+                    .boxed()
+                    .toList();
+            employees.addAll(employeeRepository.findByIdIn(chunk));
+        }
+        return employees;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        String trimmed = query.trim();
+        return withAddresses(employeeRepository.searchRanked(trimmed, LikePatterns.contains(trimmed), limit));
+    }
+
     /**
      * @param name
      * @param id
@@ -358,6 +572,7 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> findAllUkrainianOleh() {
         var employeesOlehUA = employeeRepository.findAllUkrainianByNameOleh()
                 .orElseThrow(() -> new EntityNotFoundException("Employees from Ukraine with name Oleh not found!"));
@@ -367,11 +582,13 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int countAllUkrainianWomen() {
         return employeeRepository.countAllUkrainianWomen();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> findAllItalyMario() {
         var employeesMarioIT = employeeRepository.findAllItalyByNameMario()
                 .orElseThrow(() -> new EntityNotFoundException("Employees from Italy with name Mario not found!"));
@@ -381,6 +598,8 @@ public class EmployeeServiceBean implements EmployeeService {
     }
 
     @Override
+    @IncludeDeleted
+    @Transactional(readOnly = true)
     public List<Employee> findAllDeletedBelarus() {
         var employeesDeletedBelarus = employeeRepository.findAllDeletedBelarus()
                 .orElseThrow(() -> new EntityNotFoundException("Deleted employees from Belarus not found!"));
@@ -1,11 +1,12 @@
 package com.example.demowithtests.service;
 
 import com.example.demowithtests.domain.Employee;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,7 +25,7 @@ public class EmployeeServiceEMBean implements EmployeeServiceEM {
      * @return
      */
     @Override
-    @Transactional //jakarta
+    @Transactional
     public Employee createWithJpa(Employee employee) {
         return entityManager.merge(employee);
         /*entityManager.persist(employee);
@@ -36,7 +37,7 @@ public class EmployeeServiceEMBean implements EmployeeServiceEM {
      * @return
      */
     @Override
-    @Transactional //jakarta
+    @Transactional(readOnly = true)
     public Set<String> findAllCountriesWithJpa() {
         return entityManager.createQuery("select distinct country from Employee", String.class).getResultStream().collect(Collectors.toSet());
     }
@@ -47,7 +48,7 @@ public class EmployeeServiceEMBean implements EmployeeServiceEM {
      * @return
      */
     @Override
-    @Transactional //jakarta
+    @Transactional
     public Employee updateByIdWithJpa(Integer id, Employee employee) {
         Employee refreshEmployee = Optional.ofNullable(entityManager.find(Employee.class, id))
                 .orElseThrow(() -> new RuntimeException("id = " + employee.getId()));
@@ -58,15 +59,19 @@ public class EmployeeServiceEMBean implements EmployeeServiceEM {
      * @param id
      */
     @Override
-    @Transactional //jakarta
+    @Transactional
     public void deleteByIdWithJpa(Integer id) {
         Optional<Employee> employee = Optional.ofNullable(entityManager.find(Employee.class, id));
         entityManager.remove(employee);
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Employee> getAllEM() {
-        return entityManager.createNativeQuery("SELECT * FROM users", Employee.class).getResultList();
+        EntityGraph<Employee> withAddresses = entityManager.createEntityGraph(Employee.class);
+        withAddresses.addAttributeNodes("addresses");
+        return entityManager.createQuery("select e from Employee e", Employee.class)
+                .setHint("jakarta.persistence.fetchgraph", withAddresses)
+                .getResultList();
     }
 }
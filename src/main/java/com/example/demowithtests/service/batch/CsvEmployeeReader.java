@@ -0,0 +1,174 @@
+package com.example.demowithtests.service.batch;
+
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.AddressDto;
+import com.example.demowithtests.dto.EmployeeSaveDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RFC 4180 records: fields separated by commas, quoted with {@code "} when they hold a comma, quote or
+ * line break, {@code ""} inside quotes is one quote. Columns are matched by the header, in any order,
+ * an empty field is {@code null}. Blank lines are skipped.
+ */
+class CsvEmployeeReader implements EmployeeRecordReader {
+
+    private static final Set<String> COLUMNS = Set.of("name", "email", "country", "gender",
+            "address_country", "address_city", "address_street", "address_active");
+
+    private final Reader reader;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private final StringBuilder field = new StringBuilder();
+
+    // line the reader is on, from 1
+    private long line = 1;
+
+    private boolean end;
+
+    CsvEmployeeReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readFields();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i) == null ? "" : header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column '" + column + "', expected some of " + COLUMNS);
+            }
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must have the columns name and email");
+        }
+    }
+
+    @Override
+    public EmployeeRecord next() throws IOException {
+        long start;
+        List<String> fields;
+        do {
+            start = line;
+            fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0) == null);
+
+        if (fields.size() != columns.size()) {
+            return EmployeeRecord.unparsable(start,
+                    "Expected " + columns.size() + " fields, found " + fields.size());
+        }
+        Gender gender = null;
+        String genderField = get(fields, "gender");
+        if (genderField != null) {
+            try {
+                gender = Gender.valueOf(genderField.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return EmployeeRecord.unparsable(start, "gender: must be one of " + Arrays.toString(Gender.values()));
+            }
+        }
+        return EmployeeRecord.parsed(start, new EmployeeSaveDto(null,
+                get(fields, "name"),
+                get(fields, "country"),
+                get(fields, "email"),
+                null,
+                gender,
+                address(fields),
+                null));
+    }
+
+    private Set<AddressDto> address(List<String> fields) {
+        Set<AddressDto> addresses = new HashSet<>();
+        String country = get(fields, "address_country");
+        String city = get(fields, "address_city");
+        String street = get(fields, "address_street");
+        if (country == null && city == null && street == null) {
+            return addresses;
+        }
+        AddressDto address = new AddressDto();
+        address.country = country;
+        address.city = city;
+        address.street = street;
+        String active = get(fields, "address_active");
+        if (active != null) {
+            address.addressHasActive = Boolean.valueOf(active.trim());
+        }
+        addresses.add(address);
+        return addresses;
+    }
+
+    private String get(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : fields.get(index);
+    }
+
+    /**
+     * @return fields of the next record, or {@code null} at the end of the input
+     */
+    private List<String> readFields() throws IOException {
+        if (end) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean inQuotes = false;
+        int c = reader.read();
+        if (c == -1) {
+            end = true;
+            return null;
+        }
+        while (true) {
+            if (c == -1) {
+                end = true;
+                break;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(toValue());
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(toValue());
+        return fields;
+    }
+
+    private String toValue() {
+        String value = field.isEmpty() ? null : field.toString();
+        field.setLength(0);
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demowithtests.service.batch;
+
+import com.example.demowithtests.dto.EmployeeBatchResultDto;
+import com.example.demowithtests.dto.EmployeeImportResultDto;
+import com.example.demowithtests.dto.EmployeeSaveDto;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface EmployeeBatchService {
+
+    /**
+     * Validates every item with the {@link EmployeeSaveDto} constraints, then creates
+     * all valid items in a single transaction. If that fails, e.g. on a duplicate unique value, the halves
+     * are tried again until the failing items are found. Invalid and failing items are reported, not thrown.
+     *
+     * @param requests employees to create
+     * @return one result per request item, in request order
+     */
+    List<EmployeeBatchResultDto> saveAll(List<EmployeeSaveDto> requests);
+
+    /**
+     * Reads employees from {@code input} one at a time, checks them like {@link #saveAll} and creates the
+     * valid ones in transactions of {@link EmployeeBatchServiceBean#IMPORT_CHUNK_SIZE}. A rejected line
+     * does not stop the import, employees created before a failure stay created.
+     *
+     * @param input file content in UTF-8, it is not closed
+     * @return counts, errors by line and throughput of the import
+     */
+    EmployeeImportResultDto importEmployees(InputStream input, ImportFormat format);
+}
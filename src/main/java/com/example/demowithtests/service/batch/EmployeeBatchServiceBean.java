@@ -0,0 +1,264 @@
+package com.example.demowithtests.service.batch;
+
+import com.example.demowithtests.domain.Document;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.dto.EmployeeBatchResultDto;
+import com.example.demowithtests.dto.EmployeeImportResultDto;
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.service.EmployeeService;
+import com.example.demowithtests.util.exception.CountryNotSpecifiedException;
+import com.example.demowithtests.util.exception.GenderNotFoundException;
+import com.example.demowithtests.util.mappers.EmployeeMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+@AllArgsConstructor
+@Service
+public class EmployeeBatchServiceBean implements EmployeeBatchService {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    // employees created per transaction of an import
+    public static final int IMPORT_CHUNK_SIZE = 1_000;
+
+    // errors listed in the import report, further rejections are only counted
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Validator validator;
+    private final EmployeeMapper employeeMapper;
+    private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<EmployeeBatchResultDto> saveAll(List<EmployeeSaveDto> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " employees");
+        }
+        var results = new BatchResults(requests.size());
+        List<PendingEmployee> valid = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = new ArrayList<>();
+            var employee = toEmployee(requests.get(i), errors);
+            if (employee == null) {
+                results.reject(i, errors);
+                continue;
+            }
+            valid.add(new PendingEmployee(i, requests.get(i), employee));
+        }
+
+        createChunk(valid, results);
+        log.debug("saveAll() - end: requested = {}, created = {}", requests.size(), results.created);
+        return Arrays.asList(results.results);
+    }
+
+    @Override
+    public EmployeeImportResultDto importEmployees(InputStream input, ImportFormat format) {
+        log.info("importEmployees() - start: format = {}", format);
+        long start = System.nanoTime();
+        var report = new ImportReport();
+        List<PendingEmployee> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try {
+            var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+            EmployeeRecordReader records = format == ImportFormat.CSV
+                    ? new CsvEmployeeReader(reader)
+                    : new NdjsonEmployeeReader(reader, objectMapper);
+            EmployeeRecordReader.EmployeeRecord record;
+            while ((record = records.next()) != null) {
+                report.records++;
+                List<String> errors = new ArrayList<>();
+                Employee employee = null;
+                if (record.error() != null) {
+                    errors.add(record.error());
+                } else {
+                    employee = toEmployee(record.employee(), errors);
+                }
+                if (employee == null) {
+                    report.reject(record.line(), errors);
+                    continue;
+                }
+                chunk.add(new PendingEmployee(record.line(), record.employee(), employee));
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    createChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading the import failed after " + report.records + " employees", e);
+        }
+        createChunk(chunk, report);
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long rowsPerSecond = report.records * 1_000 / millis;
+        log.info("importEmployees() - end: records = {}, created = {}, rejected = {} in {} ms, {} rows/sec",
+                report.records, report.created, report.rejected, millis, rowsPerSecond);
+        return new EmployeeImportResultDto(report.records, report.created, report.rejected, report.errors,
+                millis, rowsPerSecond);
+    }
+
+    /**
+     * Creates the chunk in one transaction. If that fails, e.g. on a duplicate unique value, each half is
+     * tried again in its own transaction, down to single employees: the failing ones are found and reported
+     * in about {@code 2 log2(n)} transactions per failure instead of one per employee.
+     */
+    private void createChunk(List<PendingEmployee> chunk, Outcomes outcomes) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        create(chunk, chunk.stream().map(PendingEmployee::employee).toList(), outcomes);
+    }
+
+    private void create(List<PendingEmployee> chunk, List<Employee> employees, Outcomes outcomes) {
+        try {
+            List<Employee> created = employeeService.createAll(employees);
+            for (int i = 0; i < created.size(); i++) {
+                outcomes.created(chunk.get(i).position(), created.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (chunk.size() == 1) {
+                outcomes.reject(chunk.get(0).position(), List.of(cause));
+                return;
+            }
+            log.warn("create() - {} employees from {} failed, trying the halves: {}",
+                    chunk.size(), chunk.get(0).position(), cause);
+        }
+        int middle = chunk.size() / 2;
+        retry(chunk.subList(0, middle), outcomes);
+        retry(chunk.subList(middle, chunk.size()), outcomes);
+    }
+
+    // the failed attempt left generated ids and versions on its entities, the retry maps fresh ones
+    private void retry(List<PendingEmployee> chunk, Outcomes outcomes) {
+        create(chunk, chunk.stream().map(pending -> toEntity(pending.request())).toList(), outcomes);
+    }
+
+    /**
+     * Maps the request to a new entity. The document of the request is copied, not shared: persisting
+     * would otherwise write an id and a version into the caller's instance.
+     */
+    private Employee toEntity(EmployeeSaveDto request) {
+        var employee = employeeMapper.toEmployee(request);
+        var document = request.document();
+        if (document != null) {
+            var copy = new Document();
+            copy.setNumber(document.getNumber());
+            copy.setUuid(document.getUuid());
+            copy.setExpireDate(document.getExpireDate());
+            copy.setIsHandled(document.getIsHandled());
+            copy.setIsDeleted(document.getIsDeleted());
+            employee.setDocument(copy);
+        }
+        return employee;
+    }
+
+    /**
+     * @return the employee to create, or {@code null} with the reasons added to {@code errors}
+     */
+    private Employee toEmployee(EmployeeSaveDto request, List<String> errors) {
+        errors.addAll(validate(request));
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        var employee = toEntity(request);
+        try {
+            employeeService.checkRequiredFields(employee);
+        } catch (GenderNotFoundException | CountryNotSpecifiedException e) {
+            errors.add(e.getMessage().trim());
+            return null;
+        }
+        return employee;
+    }
+
+    private List<String> validate(EmployeeSaveDto request) {
+        if (request == null) {
+            return List.of("Employee must not be null");
+        }
+        return validator.validate(request).stream()
+                .map(EmployeeBatchServiceBean::toMessage)
+                .sorted()
+                .toList();
+    }
+
+    private static String toMessage(ConstraintViolation<EmployeeSaveDto> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    /**
+     * @param position line of an import, index of a batch
+     */
+    private record PendingEmployee(long position, EmployeeSaveDto request, Employee employee) {
+    }
+
+    private interface Outcomes {
+
+        void created(long position, Employee employee);
+
+        void reject(long position, List<String> errors);
+    }
+
+    private static final class BatchResults implements Outcomes {
+
+        private final EmployeeBatchResultDto[] results;
+
+        private int created;
+
+        BatchResults(int size) {
+            results = new EmployeeBatchResultDto[size];
+        }
+
+        @Override
+        public void created(long position, Employee employee) {
+            created++;
+            results[(int) position] = EmployeeBatchResultDto.created((int) position, employee.getId());
+        }
+
+        @Override
+        public void reject(long position, List<String> errors) {
+            results[(int) position] = EmployeeBatchResultDto.rejected((int) position, errors);
+        }
+    }
+
+    private static final class ImportReport implements Outcomes {
+
+        private long records;
+
+        private long created;
+
+        private long rejected;
+
+        private final List<EmployeeImportResultDto.LineError> errors = new ArrayList<>();
+
+        @Override
+        public void created(long line, Employee employee) {
+            created++;
+        }
+
+        @Override
+        public void reject(long line, List<String> lineErrors) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new EmployeeImportResultDto.LineError(line, lineErrors));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demowithtests.service.batch;
+
+import com.example.demowithtests.dto.EmployeeSaveDto;
+
+import java.io.IOException;
+
+/**
+ * Reads the employees of an import file one at a time, only the current record is held in memory.
+ */
+interface EmployeeRecordReader {
+
+    /**
+     * @return the next employee, or {@code null} at the end of the input
+     */
+    EmployeeRecord next() throws IOException;
+
+    /**
+     * One employee of the input, either parsed or with the reason it could not be.
+     *
+     * @param line line of the input the employee starts on, from 1
+     */
+    record EmployeeRecord(long line, EmployeeSaveDto employee, String error) {
+
+        static EmployeeRecord parsed(long line, EmployeeSaveDto employee) {
+            return new EmployeeRecord(line, employee, null);
+        }
+
+        static EmployeeRecord unparsable(long line, String error) {
+            return new EmployeeRecord(line, null, error);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demowithtests.service.batch;
+
+import java.util.Locale;
+
+/**
+ * Layouts of an employee import file, see {@link EmployeeBatchService#importEmployees}.
+ */
+public enum ImportFormat {
+
+    /**
+     * Header line followed by one employee per line, columns {@code name, email, country, gender} and
+     * optionally one address in {@code address_country, address_city, address_street, address_active}.
+     */
+    CSV,
+
+    /**
+     * One {@link com.example.demowithtests.dto.EmployeeSaveDto} JSON object per line.
+     */
+    NDJSON;
+
+    /**
+     * @return format matching the extension of {@code filename}
+     * @throws IllegalArgumentException for an unknown extension
+     */
+    public static ImportFormat fromFilename(String filename) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of '" + filename + "', pass format=CSV or format=NDJSON");
+    }
+}
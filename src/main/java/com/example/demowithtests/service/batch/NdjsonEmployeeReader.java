@@ -0,0 +1,46 @@
+package com.example.demowithtests.service.batch;
+
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Blank lines are skipped, a line that is not a valid employee is reported and the next one is read.
+ */
+class NdjsonEmployeeReader implements EmployeeRecordReader {
+
+    private final BufferedReader reader;
+
+    private final ObjectReader employeeReader;
+
+    private long line;
+
+    NdjsonEmployeeReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.employeeReader = objectMapper.readerFor(EmployeeSaveDto.class);
+    }
+
+    @Override
+    public EmployeeRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        try {
+            EmployeeSaveDto employee = employeeReader.readValue(text);
+            return employee == null
+                    ? EmployeeRecord.unparsable(line, "Employee must not be null")
+                    : EmployeeRecord.parsed(line, employee);
+        } catch (JsonProcessingException e) {
+            return EmployeeRecord.unparsable(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
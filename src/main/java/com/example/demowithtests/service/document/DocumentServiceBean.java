@@ -2,10 +2,11 @@ package com.example.demowithtests.service.document;
 
 import com.example.demowithtests.domain.Document;
 import com.example.demowithtests.repository.DocumentRepository;
-import jakarta.transaction.Transactional;
+import com.example.demowithtests.util.exception.ResourceConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -32,6 +33,7 @@ public class DocumentServiceBean implements DocumentService {
      * @return
      */
     @Override
+    @Transactional(readOnly = true)
     public Document getById(Integer id) {
         return documentRepository.findById(id).orElseThrow();
     }
@@ -41,12 +43,13 @@ public class DocumentServiceBean implements DocumentService {
      * @return
      */
     @Override
+    @Transactional
     public Document handlePassport(Integer id) {
-        Document document = getById(id);
-        if (document.getIsHandled()) {
-            throw new RuntimeException();
-        } else document.setIsHandled(Boolean.TRUE);
-        return documentRepository.save(document);
+        if (documentRepository.markHandled(id) == 0) {
+            getById(id); // throws if there is no such document
+            throw new ResourceConflictException("Document with id = " + id + " is already handled");
+        }
+        return getById(id);
     }
 
     /**
@@ -1,8 +1,20 @@
 package com.example.demowithtests.service.emailService;
 
 import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.Map;
 
 public interface EmailSenderService {
 
     void sendEmail(String toEmail, String subject, String body) throws MailException;
+
+    /**
+     * Sends the messages over one connection to the server.
+     *
+     * @param messages messages by an id of the caller's, such as their outbox row
+     * @return ids of the messages that could not be sent and why, a message with an invalid address is not sent at all
+     * @throws MailException if none could be sent, e.g. the server cannot be reached
+     */
+    Map<Long, Exception> sendEmails(Map<Long, SimpleMailMessage> messages) throws MailException;
 }
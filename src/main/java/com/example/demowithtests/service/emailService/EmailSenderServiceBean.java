@@ -1,12 +1,21 @@
 package com.example.demowithtests.service.emailService;
 
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Log4j2
 @AllArgsConstructor
 @Service
@@ -24,4 +33,38 @@ public class EmailSenderServiceBean implements EmailSenderService {
         mailSender.send(message);
         log.info("Mail to {} sent successfully", toEmail);
     }
+
+    @Override
+    public Map<Long, Exception> sendEmails(Map<Long, SimpleMailMessage> messages) throws MailException {
+        Map<Long, Exception> failed = new LinkedHashMap<>();
+        // MimeMessage has identity equality, so equal messages keep their own failures, unlike SimpleMailMessage
+        Map<MimeMessage, Long> valid = new LinkedHashMap<>();
+        for (Map.Entry<Long, SimpleMailMessage> message : messages.entrySet()) {
+            // one invalid address would fail the conversion of the whole batch
+            try {
+                for (String to : message.getValue().getTo()) {
+                    new InternetAddress(to, true);
+                }
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                message.getValue().copyTo(new MimeMailMessage(mimeMessage));
+                valid.put(mimeMessage, message.getKey());
+            } catch (AddressException e) {
+                failed.put(message.getKey(), new MailParseException(e));
+            } catch (MailParseException e) {
+                failed.put(message.getKey(), e);
+            }
+        }
+        if (!valid.isEmpty()) {
+            try {
+                mailSender.send(valid.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    throw e;
+                }
+                e.getFailedMessages().forEach((message, exception) -> failed.put(valid.get(message), exception));
+            }
+        }
+        log.debug("sendEmails() - messages = {}, failed = {}", messages.size(), failed.size());
+        return failed;
+    }
 }
@@ -0,0 +1,292 @@
+package com.example.demowithtests.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams employees with their document and addresses into one gzip compressed file.
+ * <p>
+ * The rows are read with a forward-only cursor inside a read-only transaction, so the driver holds
+ * one fetch of rows at a time ({@code fetchSize}) and a read replica serves them when there is one.
+ * The file is written to {@code <target>.part} through a {@link FileChannel} and renamed once complete,
+ * a file under the target name is always a finished export.
+ */
+@Slf4j
+class EmployeeExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // ordered by employee, so the rows of one employee are adjacent
+    private static final String SELECT =
+            "SELECT u.id, u.name, u.email, u.country, u.gender, u.is_deleted, " +
+            "d.number, d.uuid, d.expire_date, d.is_handled, " +
+            "a.id, a.address_has_active, a.country, a.city, a.street " +
+            "FROM users u " +
+            "LEFT JOIN documents d ON d.id = u.document_id " +
+            "LEFT JOIN addresses a ON a.employee_id = u.id ";
+
+    private static final String ORDER = "ORDER BY u.id, a.id";
+
+    private static final String CSV_HEADER = "id,name,email,country,gender,is_deleted," +
+            "document_number,document_uuid,document_expire_date,document_is_handled," +
+            "address_id,address_active,address_country,address_city,address_street\n";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final JsonFactory jsonFactory;
+
+    private final ExportFormat format;
+
+    private final boolean includeDeleted;
+
+    EmployeeExportWriter(JdbcTemplate jdbcTemplate, TransactionTemplate readOnlyTransaction, JsonFactory jsonFactory,
+                         ExportFormat format, boolean includeDeleted) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.jsonFactory = jsonFactory;
+        this.format = format;
+        this.includeDeleted = includeDeleted;
+    }
+
+    /**
+     * @return number of exported employees
+     */
+    long write(Path target) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long employees;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE),
+                     StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            RowWriter rows = format == ExportFormat.CSV ? new CsvWriter(writer) : new NdjsonWriter(jsonFactory.createGenerator(writer));
+            String sql = SELECT + (includeDeleted ? "" : "WHERE u.is_deleted = false ") + ORDER;
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, resultSet -> {
+                try {
+                    rows.write(resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            employees = rows.finish();
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(part);
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("write() - end: file = {}, employees = {}", target.getFileName(), employees);
+        return employees;
+    }
+
+    private abstract static class RowWriter {
+
+        private long employees;
+
+        private int currentId;
+
+        void write(ResultSet row) throws SQLException, IOException {
+            int id = row.getInt(1);
+            if (employees == 0 || id != currentId) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export was interrupted");
+                }
+                if (employees > 0) {
+                    endEmployee();
+                }
+                employees++;
+                currentId = id;
+                startEmployee(row);
+            }
+            if (row.getObject(11) != null) {
+                address(row);
+            }
+        }
+
+        long finish() throws IOException {
+            if (employees > 0) {
+                endEmployee();
+            }
+            flush();
+            return employees;
+        }
+
+        abstract void startEmployee(ResultSet row) throws SQLException, IOException;
+
+        abstract void address(ResultSet row) throws SQLException, IOException;
+
+        abstract void endEmployee() throws IOException;
+
+        abstract void flush() throws IOException;
+    }
+
+    /**
+     * Repeats the employee and document columns on every address line.
+     */
+    private static final class CsvWriter extends RowWriter {
+
+        private final Writer writer;
+
+        private final StringBuilder employee = new StringBuilder();
+
+        private boolean hasAddress;
+
+        private CsvWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        void startEmployee(ResultSet row) throws SQLException {
+            employee.setLength(0);
+            employee.append(row.getInt(1));
+            for (int column = 2; column <= 10; column++) {
+                employee.append(',');
+                employee.append(field(value(row, column)));
+            }
+            hasAddress = false;
+        }
+
+        @Override
+        void address(ResultSet row) throws SQLException, IOException {
+            hasAddress = true;
+            writer.append(employee);
+            for (int column = 11; column <= 15; column++) {
+                writer.write(',');
+                writer.write(field(value(row, column)));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void endEmployee() throws IOException {
+            if (!hasAddress) {
+                writer.append(employee).write(",,,,,\n");
+            }
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String value(ResultSet row, int column) throws SQLException {
+            if (column == 9) {
+                LocalDateTime expireDate = row.getObject(column, LocalDateTime.class);
+                return expireDate == null ? null : expireDate.toString();
+            }
+            Object value = row.getObject(column);
+            return value == null ? null : value.toString();
+        }
+
+        /**
+         * Quotes a value holding a separator, quote or line break, RFC 4180 style.
+         */
+        private static String field(String value) {
+            if (value == null) {
+                return "";
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + value.replace("\"", "\"\"") + '"';
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Writes the JSON with a generator, no objects are built per row.
+     */
+    private static final class NdjsonWriter extends RowWriter {
+
+        private final JsonGenerator json;
+
+        private NdjsonWriter(JsonGenerator json) {
+            this.json = json;
+            // lines are ended explicitly, not separated by the default space
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void startEmployee(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", row.getInt(1));
+            json.writeStringField("name", row.getString(2));
+            json.writeStringField("email", row.getString(3));
+            json.writeStringField("country", row.getString(4));
+            json.writeStringField("gender", row.getString(5));
+            writeBooleanField("isDeleted", row, 6);
+            json.writeFieldName("document");
+            if (row.getString(7) == null) {
+                json.writeNull();
+            } else {
+                json.writeStartObject();
+                json.writeStringField("number", row.getString(7));
+                json.writeStringField("uuid", row.getString(8));
+                LocalDateTime expireDate = row.getObject(9, LocalDateTime.class);
+                json.writeStringField("expireDate", expireDate == null ? null : expireDate.toString());
+                writeBooleanField("isHandled", row, 10);
+                json.writeEndObject();
+            }
+            json.writeArrayFieldStart("addresses");
+        }
+
+        @Override
+        void address(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", row.getLong(11));
+            writeBooleanField("addressHasActive", row, 12);
+            json.writeStringField("country", row.getString(13));
+            json.writeStringField("city", row.getString(14));
+            json.writeStringField("street", row.getString(15));
+            json.writeEndObject();
+        }
+
+        @Override
+        void endEmployee() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            json.flush();
+        }
+
+        private void writeBooleanField(String name, ResultSet row, int column) throws SQLException, IOException {
+            boolean value = row.getBoolean(column);
+            if (row.wasNull()) {
+                json.writeNullField(name);
+            } else {
+                json.writeBooleanField(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demowithtests.service.export;
+
+/**
+ * File formats of an employee export, both are written gzip compressed.
+ */
+public enum ExportFormat {
+
+    /**
+     * One line per employee and address, employees without addresses get empty address columns.
+     */
+    CSV("csv", "text/csv"),
+
+    /**
+     * One JSON object per employee with its document and addresses nested.
+     */
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return media type of the uncompressed content
+     */
+    public String getContentType() {
+        return contentType;
+    }
+}
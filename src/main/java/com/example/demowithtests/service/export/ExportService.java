@@ -0,0 +1,34 @@
+package com.example.demowithtests.service.export;
+
+import com.example.demowithtests.dto.ExportJobDto;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ExportService {
+
+    /**
+     * Queues an export of all employees with their document and addresses.
+     *
+     * @param includeDeleted whether soft deleted employees are exported too
+     * @return the queued job
+     * @throws java.util.concurrent.RejectedExecutionException if the queue of the export executor is full
+     */
+    ExportJobDto start(ExportFormat format, boolean includeDeleted);
+
+    ExportJobDto getJob(String id);
+
+    List<ExportJobDto> getJobs();
+
+    /**
+     * @return the gzip compressed file of a done job
+     * @throws com.example.demowithtests.util.exception.ResourceConflictException if the job is not done
+     */
+    Path getFile(String id);
+
+    /**
+     * Forgets the job and deletes its file. A queued job does not run, a running one is not interrupted
+     * but its file is deleted when it finishes.
+     */
+    void delete(String id);
+}
@@ -0,0 +1,176 @@
+package com.example.demowithtests.service.export;
+
+import com.example.demowithtests.dto.ExportJobDto;
+import com.example.demowithtests.util.config.ExportProperties;
+import com.example.demowithtests.util.exception.ResourceConflictException;
+import com.example.demowithtests.util.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs the exports on the bounded {@code exportExecutor} and keeps the jobs in memory.
+ * Jobs do not survive a restart, files left behind by a previous run are deleted at startup.
+ */
+@Slf4j
+@Service
+public class ExportServiceBean implements ExportService {
+
+    private static final String FILE_PREFIX = "employees-";
+
+    private final ExportProperties properties;
+
+    private final ThreadPoolExecutor executor;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final JsonFactory jsonFactory;
+
+    private final Map<String, ExportJobDto> jobs = new ConcurrentHashMap<>();
+
+    public ExportServiceBean(ExportProperties properties,
+                             @Qualifier("exportExecutor") ThreadPoolExecutor executor,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.executor = executor;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @PostConstruct
+    void prepareDirectory() throws IOException {
+        Files.createDirectories(properties.getDirectory());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(properties.getDirectory(), FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public ExportJobDto start(ExportFormat format, boolean includeDeleted) {
+        purgeExpired();
+        ExportJobDto job = ExportJobDto.queued(UUID.randomUUID().toString(), format, includeDeleted);
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job.id()));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            throw new RejectedExecutionException("Too many export jobs, try again later", e);
+        }
+        log.info("start() - job {} queued: format = {}, includeDeleted = {}", job.id(), format, includeDeleted);
+        return job;
+    }
+
+    @Override
+    public ExportJobDto getJob(String id) {
+        ExportJobDto job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException();
+        }
+        return job;
+    }
+
+    @Override
+    public List<ExportJobDto> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ExportJobDto::createdAt))
+                .toList();
+    }
+
+    @Override
+    public Path getFile(String id) {
+        ExportJobDto job = getJob(id);
+        if (job.status() != ExportJobDto.Status.DONE) {
+            throw new ResourceConflictException("Export job with id = " + id + " is " + job.status());
+        }
+        return file(job);
+    }
+
+    @Override
+    public void delete(String id) {
+        ExportJobDto job = jobs.remove(id);
+        if (job == null) {
+            throw new ResourceNotFoundException();
+        }
+        if (job.isFinished()) {
+            deleteFile(job);
+        }
+    }
+
+    private void run(String id) {
+        ExportJobDto job = jobs.computeIfPresent(id, (key, queued) -> queued.running());
+        if (job == null) {
+            // deleted while queued
+            return;
+        }
+        log.info("run() - job {} started", id);
+        try {
+            Path file = file(job);
+            long employees = new EmployeeExportWriter(jdbcTemplate, readOnlyTransaction, jsonFactory,
+                    job.format(), job.includeDeleted()).write(file);
+            long bytes = Files.size(file);
+            if (jobs.computeIfPresent(id, (key, running) -> running.done(employees, bytes)) == null) {
+                // deleted while running
+                deleteFile(job);
+                return;
+            }
+            log.info("run() - job {} done: employees = {}, bytes = {}", id, employees, bytes);
+        } catch (IOException | RuntimeException e) {
+            log.error("run() - job {} failed", id, e);
+            jobs.computeIfPresent(id, (key, running) -> running.failed(e.getMessage()));
+        }
+    }
+
+    private void purgeExpired() {
+        Instant expired = Instant.now().minus(properties.getRetention());
+        jobs.values().stream()
+                .filter(job -> job.isFinished() && job.finishedAt().isBefore(expired))
+                .forEach(job -> {
+                    if (jobs.remove(job.id(), job)) {
+                        deleteFile(job);
+                    }
+                });
+    }
+
+    private Path file(ExportJobDto job) {
+        return properties.getDirectory()
+                .resolve(FILE_PREFIX + job.id() + "." + job.format().getExtension() + ".gz");
+    }
+
+    private void deleteFile(ExportJobDto job) {
+        try {
+            Files.deleteIfExists(file(job));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
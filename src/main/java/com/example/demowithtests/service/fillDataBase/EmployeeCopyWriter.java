@@ -0,0 +1,234 @@
+package com.example.demowithtests.service.fillDataBase;
+
+import com.example.demowithtests.domain.Gender;
+import com.github.javafaker.Faker;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates one partition of employees with their addresses and streams it into PostgreSQL
+ * with {@code COPY ... FROM STDIN}.
+ * <p>
+ * Rows are produced in chunks: ids of a chunk are reserved from {@code users_seq}/{@code addresses_seq},
+ * the chunk is copied into {@code users} and then {@code addresses} and committed. Only one chunk is held
+ * in memory and the COPY stream itself is buffered with a fixed size.
+ */
+@Slf4j
+class EmployeeCopyWriter {
+
+    static final int CHUNK_SIZE = 5_000;
+
+    static final int ADDRESSES_PER_EMPLOYEE = 2;
+
+    // equal to the increment of the sequences (V11) and the allocationSize of the entities
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String COPY_USERS =
+            "COPY users (id, name, email, country, gender, is_deleted) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_ADDRESSES =
+            "COPY addresses (id, employee_id, address_has_active, country, city, street) FROM STDIN WITH (FORMAT csv)";
+
+    private final DataSource dataSource;
+
+    private final int partition;
+
+    private final long rows;
+
+    private final Random random;
+
+    private final Faker faker;
+
+    EmployeeCopyWriter(DataSource dataSource, int partition, long rows, long seed) {
+        this.dataSource = dataSource;
+        this.partition = partition;
+        this.rows = rows;
+        this.random = new Random(partitionSeed(seed, partition));
+        this.faker = new Faker(new Locale("en"), random);
+    }
+
+    /**
+     * The same seed and partition always produce the same rows, whatever the parallelism of the other partitions.
+     */
+    static long partitionSeed(long seed, int partition) {
+        return seed * 0x9E3779B97F4A7C15L + partition;
+    }
+
+    /**
+     * @return number of inserted employees
+     */
+    long write() throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            long written = 0;
+            while (written < rows) {
+                int size = (int) Math.min(CHUNK_SIZE, rows - written);
+                List<EmployeeRow> chunk = generate(written, size);
+                reserveIds(connection, chunk);
+                copyUsers(pgConnection, chunk);
+                copyAddresses(pgConnection, chunk);
+                connection.commit();
+                written += size;
+            }
+            log.debug("write() - partition {} done: rows = {}", partition, written);
+            return written;
+        }
+    }
+
+    private List<EmployeeRow> generate(long offset, int size) {
+        List<EmployeeRow> chunk = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = faker.name().name();
+            String email = name.toLowerCase().replaceAll("[^a-z]", "")
+                    + "." + partition + "." + (offset + i) + "@mail.com";
+            List<AddressRow> addresses = new ArrayList<>(ADDRESSES_PER_EMPLOYEE);
+            for (int j = 0; j < ADDRESSES_PER_EMPLOYEE; j++) {
+                addresses.add(new AddressRow(
+                        random.nextBoolean(),
+                        faker.address().country(),
+                        faker.address().city(),
+                        faker.address().streetAddress()));
+            }
+            chunk.add(new EmployeeRow(
+                    name,
+                    email,
+                    faker.country().name(),
+                    random.nextBoolean() ? Gender.M : Gender.F,
+                    addresses));
+        }
+        return chunk;
+    }
+
+    private void reserveIds(Connection connection, List<EmployeeRow> chunk) throws SQLException {
+        long[] userIds = nextIds(connection, "users_seq", chunk.size());
+        long[] addressIds = nextIds(connection, "addresses_seq", chunk.size() * ADDRESSES_PER_EMPLOYEE);
+        int address = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            EmployeeRow employee = chunk.get(i);
+            employee.id = userIds[i];
+            for (AddressRow row : employee.addresses) {
+                row.id = addressIds[address++];
+            }
+        }
+    }
+
+    /**
+     * Every nextval() hands out a block of {@link #ID_BLOCK_SIZE} ids, the same way the pooled-lo
+     * optimizer of Hibernate uses the sequence, so generated and JPA-created rows never collide.
+     */
+    private static long[] nextIds(Connection connection, String sequence, int count) throws SQLException {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        long[] ids = new long[count];
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select nextval('" + sequence + "') from generate_series(1, ?)")) {
+            statement.setInt(1, blocks);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int i = 0;
+                while (resultSet.next()) {
+                    long first = resultSet.getLong(1);
+                    for (int j = 0; j < ID_BLOCK_SIZE && i < count; j++) {
+                        ids[i++] = first + j;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void copyUsers(PGConnection connection, List<EmployeeRow> chunk) throws SQLException, IOException {
+        try (Writer writer = copyWriter(connection, COPY_USERS)) {
+            for (EmployeeRow employee : chunk) {
+                writer.write(Long.toString(employee.id));
+                writeField(writer, employee.name);
+                writeField(writer, employee.email);
+                writeField(writer, employee.country);
+                writeField(writer, employee.gender.name());
+                writer.write(",false\n");
+            }
+        }
+    }
+
+    private static void copyAddresses(PGConnection connection, List<EmployeeRow> chunk) throws SQLException, IOException {
+        try (Writer writer = copyWriter(connection, COPY_ADDRESSES)) {
+            for (EmployeeRow employee : chunk) {
+                for (AddressRow address : employee.addresses) {
+                    writer.write(Long.toString(address.id));
+                    writer.write(',');
+                    writer.write(Long.toString(employee.id));
+                    writer.write(address.active ? ",true" : ",false");
+                    writeField(writer, address.country);
+                    writeField(writer, address.city);
+                    writeField(writer, address.street);
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Closing the writer ends the COPY.
+     */
+    private static Writer copyWriter(PGConnection connection, String sql) throws SQLException {
+        return new OutputStreamWriter(new PGCopyOutputStream(connection, sql, COPY_BUFFER_SIZE), StandardCharsets.UTF_8);
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static final class EmployeeRow {
+        private long id;
+        private final String name;
+        private final String email;
+        private final String country;
+        private final Gender gender;
+        private final List<AddressRow> addresses;
+
+        private EmployeeRow(String name, String email, String country, Gender gender, List<AddressRow> addresses) {
+            this.name = name;
+            this.email = email;
+            this.country = country;
+            this.gender = gender;
+            this.addresses = addresses;
+        }
+    }
+
+    private static final class AddressRow {
+        private long id;
+        private final boolean active;
+        private final String country;
+        private final String city;
+        private final String street;
+
+        private AddressRow(boolean active, String country, String city, String street) {
+            this.active = active;
+            this.country = country;
+            this.city = city;
+            this.street = street;
+        }
+    }
+}
@@ -4,5 +4,15 @@ public interface LoaderService {
 
     void generateData();
 
+    /**
+     * Generates {@code count} employees with two addresses each and copies them into PostgreSQL.
+     *
+     * @param count       number of employees, at most {@link LoaderServiceBean#MAX_COUNT}
+     * @param seed        the same seed and parallelism produce the same data
+     * @param parallelism number of partitions generated and copied concurrently, each on its own connection
+     * @return number of inserted employees
+     */
+    long generateData(long count, long seed, int parallelism);
+
     long count();
 }
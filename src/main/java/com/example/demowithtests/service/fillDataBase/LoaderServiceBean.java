@@ -9,16 +9,27 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Slf4j
 @AllArgsConstructor
 @Service
 public class LoaderServiceBean implements LoaderService {
 
-    private final EmployeeRepository employeeRepository;
+    // what one request copies in well under a minute, larger datasets take several requests
+    public static final long MAX_COUNT = 1_000_000;
+
+    // stays below the default connection pool size of 10
+    public static final int MAX_PARALLELISM = 8;
 
+    private final EmployeeRepository employeeRepository;
 
+    private final DataSource dataSource;
 
     /**
      *
@@ -29,6 +40,44 @@ public class LoaderServiceBean implements LoaderService {
         employeeRepository.saveAll(employees);
     }
 
+    @Override
+    public long generateData(long count, long seed, int parallelism) {
+        if (count < 1 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT);
+        }
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new IllegalArgumentException("parallelism must be between 1 and " + MAX_PARALLELISM);
+        }
+        log.info("generateData() - start: count = {}, seed = {}, parallelism = {}", count, seed, parallelism);
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Long>> partitions = new ArrayList<>(parallelism);
+            for (int partition = 0; partition < parallelism; partition++) {
+                long rows = count / parallelism + (partition < count % parallelism ? 1 : 0);
+                EmployeeCopyWriter writer = new EmployeeCopyWriter(dataSource, partition, rows, seed);
+                partitions.add(executor.submit(writer::write));
+            }
+            long inserted = 0;
+            for (Future<Long> partition : partitions) {
+                inserted += partition.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("generateData() - end: inserted = {} employees in {} s, {} rows/sec", inserted,
+                    String.format("%.1f", seconds),
+                    String.format("%.0f", inserted * (1 + EmployeeCopyWriter.ADDRESSES_PER_EMPLOYEE) / seconds));
+            return inserted;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk generation failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk generation was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * @return
      */
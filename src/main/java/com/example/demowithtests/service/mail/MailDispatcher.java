@@ -0,0 +1,229 @@
+package com.example.demowithtests.service.mail;
+
+import com.example.demowithtests.repository.MailOutboxQueue;
+import com.example.demowithtests.repository.MailOutboxQueue.ClaimedMessage;
+import com.example.demowithtests.service.emailService.EmailSenderService;
+import com.example.demowithtests.util.config.MailOutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.SendFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the mail outbox. A single thread claims the due messages in chunks, each chunk is sent over one
+ * connection by one of a fixed number of workers; no more chunks are claimed than there are idle workers, so the
+ * messages wait in the table, not in memory. A failed message is tried again after a backoff doubling with every
+ * attempt, an invalid address is given up at once.
+ * <p>
+ * Delivery is at least once: a message whose status could not be written after it was sent goes out again
+ * when its lease runs out.
+ * <p>
+ * Unless {@code app.mail.outbox.deliver-to-employees} is on, every message is sent to the test recipient
+ * instead of the employee.
+ */
+@Slf4j
+public class MailDispatcher implements Closeable {
+
+    private static final String NAME_PLACEHOLDER = "{name}";
+
+    private final MailOutboxQueue outbox;
+
+    private final EmailSenderService emailSenderService;
+
+    private final MailOutboxProperties properties;
+
+    private final ScheduledExecutorService poller;
+
+    private final ExecutorService workers;
+
+    // idle workers
+    private final Semaphore connections;
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter failed;
+
+    public MailDispatcher(MailOutboxQueue outbox, EmailSenderService emailSenderService,
+                          MailOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outbox = outbox;
+        this.emailSenderService = emailSenderService;
+        this.properties = properties;
+        this.connections = new Semaphore(properties.getThreads());
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "mail-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = counter("sent", meterRegistry);
+        this.retried = counter("retried", meterRegistry);
+        this.failed = counter("failed", meterRegistry);
+        if (!properties.isDeliverToEmployees()) {
+            log.info("MailDispatcher() - mail to employees goes to {}, set app.mail.outbox.deliver-to-employees=true"
+                    + " to mail the employees", properties.getTestRecipient());
+        }
+        if (properties.isEnabled()) {
+            long interval = properties.getPollInterval().toMillis();
+            poller.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Looks for due messages now instead of at the next poll.
+     */
+    public void wakeUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            poller.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            // closed, the messages wait for the next start
+        }
+    }
+
+    private void dispatch() {
+        try {
+            while (connections.tryAcquire()) {
+                List<ClaimedMessage> messages;
+                try {
+                    messages = outbox.claimDue(properties.getMessagesPerConnection(), properties.getLease());
+                } catch (RuntimeException e) {
+                    connections.release();
+                    throw e;
+                }
+                if (messages.isEmpty()) {
+                    connections.release();
+                    return;
+                }
+                try {
+                    workers.execute(() -> {
+                        try {
+                            send(messages);
+                        } finally {
+                            connections.release();
+                            wakeUp();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // closed, the claimed messages are due again when their lease runs out
+                    connections.release();
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("dispatch() - cannot read the mail outbox", e);
+        }
+    }
+
+    private void send(List<ClaimedMessage> messages) {
+        Map<Long, SimpleMailMessage> mails = new LinkedHashMap<>();
+        for (ClaimedMessage message : messages) {
+            SimpleMailMessage mail = new SimpleMailMessage();
+            if (properties.getFrom() != null) {
+                mail.setFrom(properties.getFrom());
+            }
+            mail.setTo(properties.isDeliverToEmployees() ? message.recipient() : properties.getTestRecipient());
+            mail.setSubject(message.subject());
+            mail.setText(message.body().replace(NAME_PLACEHOLDER, message.name() == null ? "" : message.name()));
+            mails.put(message.id(), mail);
+        }
+        Map<Long, Exception> failures;
+        MailException failure = null;
+        try {
+            failures = emailSenderService.sendEmails(mails);
+        } catch (MailException e) {
+            failures = Map.of();
+            failure = e;
+        }
+        try {
+            List<ClaimedMessage> sentMessages = new ArrayList<>(messages.size());
+            for (ClaimedMessage message : messages) {
+                Exception exception = failure != null ? failure : failures.get(message.id());
+                if (exception == null) {
+                    sentMessages.add(message);
+                } else {
+                    failed(message, exception);
+                }
+            }
+            outbox.markSent(sentMessages);
+            sent.increment(sentMessages.size());
+            log.debug("send() - sent = {}, failed = {}", sentMessages.size(), messages.size() - sentMessages.size());
+        } catch (RuntimeException e) {
+            log.error("send() - cannot record the outcome of {} messages, they are sent again after their lease",
+                    messages.size(), e);
+        }
+    }
+
+    private void failed(ClaimedMessage message, Exception exception) {
+        String error = exception.getClass().getSimpleName() + ": " + exception.getMessage();
+        if (isPermanent(exception) || message.attempt() >= properties.getMaxAttempts()) {
+            outbox.markFailed(message.id(), message.attempt(), error);
+            failed.increment();
+            log.warn("failed() - mail {} to {} given up after {} attempts: {}",
+                    message.id(), message.recipient(), message.attempt(), error);
+        } else {
+            outbox.markRetry(message.id(), message.attempt(), Instant.now().plus(backoff(message.attempt())), error);
+            retried.increment();
+            log.debug("failed() - mail {} to {} tried again later: {}", message.id(), message.recipient(), error);
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        long millis = properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20);
+        return Duration.ofMillis(Math.min(millis, properties.getMaxBackoff().toMillis()));
+    }
+
+    // the address is wrong, trying again cannot help
+    private static boolean isPermanent(Exception exception) {
+        return exception instanceof MailParseException
+                || exception instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private static Counter counter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("mail.outbox.messages")
+                .description("Outbox messages by outcome of their attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demowithtests.service.mail;
+
+import com.example.demowithtests.domain.MailStatus;
+import com.example.demowithtests.dto.MailJobDto;
+import com.example.demowithtests.dto.MailJobRequestDto;
+import com.example.demowithtests.dto.MailRecipientDto;
+import com.example.demowithtests.repository.EmployeeCriteria;
+
+import java.util.List;
+
+public interface MailJobService {
+
+    /**
+     * Queues a mail to every active employee with an email matching {@code criteria}, see
+     * {@link com.example.demowithtests.domain.MailJob} for the body. The recipients are stored in the outbox
+     * before this returns, they are sent in the background by {@link MailDispatcher}.
+     */
+    MailJobDto start(EmployeeCriteria criteria, String subject, String body);
+
+    /**
+     * {@link #start(EmployeeCriteria, String, String)} with the filter, subject and body of {@code request}.
+     */
+    MailJobDto start(MailJobRequestDto request);
+
+    MailJobDto getJob(String id);
+
+    /**
+     * @param status recipients in this status only, all of them if {@code null}
+     * @param size   at most 1000, larger pages are cut
+     */
+    List<MailRecipientDto> getRecipients(String id, MailStatus status, int page, int size);
+}
@@ -0,0 +1,97 @@
+package com.example.demowithtests.service.mail;
+
+import com.example.demowithtests.domain.MailJob;
+import com.example.demowithtests.domain.MailOutboxMessage;
+import com.example.demowithtests.domain.MailStatus;
+import com.example.demowithtests.dto.MailJobDto;
+import com.example.demowithtests.dto.MailJobRequestDto;
+import com.example.demowithtests.dto.MailRecipientDto;
+import com.example.demowithtests.repository.EmployeeCriteria;
+import com.example.demowithtests.repository.MailJobRepository;
+import com.example.demowithtests.repository.MailOutboxRepository;
+import com.example.demowithtests.util.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@AllArgsConstructor
+@Service
+public class MailJobServiceBean implements MailJobService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final MailJobRepository mailJobRepository;
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final MailDispatcher mailDispatcher;
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public MailJobDto start(MailJobRequestDto request) {
+        var criteria = new EmployeeCriteria(request.country(), request.gender(), request.ids(), request.name());
+        return start(criteria, request.subject(), request.body());
+    }
+
+    @Override
+    @Transactional
+    public MailJobDto start(EmployeeCriteria criteria, String subject, String body) {
+        MailJob job = MailJob.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .body(body)
+                .createdAt(Instant.now())
+                .build();
+        entityManager.persist(job);
+        // the outbox rows reference the job
+        entityManager.flush();
+        int recipients = mailOutboxRepository.enqueue(job.getId(), criteria);
+        job.setRecipients(recipients);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mailDispatcher.wakeUp();
+            }
+        });
+        log.info("start() - job {} queued: criteria = {}, recipients = {}", job.getId(), criteria, recipients);
+        return MailJobDto.of(job, Map.of(MailStatus.PENDING, (long) recipients));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MailJobDto getJob(String id) {
+        MailJob job = mailJobRepository.findById(id).orElseThrow(ResourceNotFoundException::new);
+        Map<MailStatus, Long> counts = new EnumMap<>(MailStatus.class);
+        for (Object[] row : mailOutboxRepository.countByStatus(id)) {
+            counts.put((MailStatus) row[0], (Long) row[1]);
+        }
+        return MailJobDto.of(job, counts);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MailRecipientDto> getRecipients(String id, MailStatus status, int page, int size) {
+        if (!mailJobRepository.existsById(id)) {
+            throw new ResourceNotFoundException();
+        }
+        PageRequest pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
+        List<MailOutboxMessage> messages = status == null
+                ? mailOutboxRepository.findByJobIdOrderById(id, pageable)
+                : mailOutboxRepository.findByJobIdAndStatusOrderById(id, status, pageable);
+        return messages.stream().map(MailRecipientDto::of).toList();
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.demowithtests.service.search;
+
+import com.example.demowithtests.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over name, email and country of all employees, enabled with
+ * {@code app.search.index.enabled=true}.
+ * <p>
+ * Built at startup by streaming {@code users} and kept current by {@link EmployeeSearchIndexListener}
+ * after every committed insert, update (soft delete included) and delete made through JPA.
+ * Bulk soft deletes and restores report their ids through {@link #refreshAfterCommit}. Other bulk JPQL/native
+ * statements and the COPY generator bypass the listener, a rebuild through the {@code searchindex} actuator
+ * endpoint picks their changes up.
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndex {
+
+    // ids re-read per statement of a refresh
+    private static final int REFRESH_CHUNK_SIZE = 1_000;
+
+    private final boolean enabled;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    // a refresh reads the primary, a replica may not have the change yet
+    private final TransactionTemplate refreshTransaction;
+
+    private final Timer rebuildTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Fields fields = new Fields();
+
+    // changes committed while a rebuild streams the table, replayed on the new index
+    private List<EmployeeSearchRow> pending;
+
+    private volatile boolean ready;
+
+    private volatile Duration lastRebuildTime;
+
+    private volatile Instant lastRebuildAt;
+
+    public EmployeeSearchIndex(@Value("${app.search.index.enabled:false}") boolean enabled,
+                               EmployeeRepository employeeRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        // after a commit the finished transaction is still bound to the thread
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTimer = Timer.builder("search.index.rebuild")
+                .description("Time to rebuild the employee search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.memory", this, EmployeeSearchIndex::estimatedBytes)
+                .description("Estimated heap footprint of the employee search index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("search.index.employees", this, EmployeeSearchIndex::size)
+                .description("Employees in the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return {@code true} once the index is built and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void rebuild() {
+        if (!enabled) {
+            throw new IllegalStateException("Search index is disabled, set app.search.index.enabled=true");
+        }
+        log.info("rebuild() - start");
+        long start = System.nanoTime();
+        write(() -> pending = new ArrayList<>());
+        Fields rebuilt = new Fields();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<EmployeeSearchRow> rows = employeeRepository.streamSearchRows()) {
+                    rows.forEach(rebuilt::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            write(() -> pending = null);
+            throw e;
+        }
+        write(() -> {
+            pending.forEach(rebuilt::put);
+            pending = null;
+            fields = rebuilt;
+        });
+        lastRebuildTime = Duration.ofNanos(System.nanoTime() - start);
+        lastRebuildAt = Instant.now();
+        rebuildTimer.record(lastRebuildTime);
+        ready = true;
+        log.info("rebuild() - end: employees = {}, time = {} ms", size(), lastRebuildTime.toMillis());
+    }
+
+    /**
+     * Indexes the committed state of an employee, a {@code null} attribute is not searchable.
+     */
+    public void put(EmployeeSearchRow row) {
+        if (!enabled) {
+            return;
+        }
+        write(() -> {
+            fields.put(row);
+            if (pending != null) {
+                pending.add(row);
+            }
+        });
+    }
+
+    public void remove(Integer id) {
+        put(new EmployeeSearchRow(id, null, null, null));
+    }
+
+    /**
+     * {@link #put(EmployeeSearchRow)} once the current transaction commits, right away without one.
+     * A rollback leaves the index untouched.
+     */
+    public void putAfterCommit(EmployeeSearchRow row) {
+        afterCommit(() -> put(row));
+    }
+
+    public void removeAfterCommit(Integer id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Indexes the committed state of the employees once the current transaction commits, for changes that
+     * bypass {@link EmployeeSearchIndexListener} like a bulk soft delete or restore. Deleted employees are
+     * removed.
+     */
+    public void refreshAfterCommit(Collection<Integer> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Integer> copy = List.copyOf(ids);
+        afterCommit(() -> refresh(copy));
+    }
+
+    private void refresh(List<Integer> ids) {
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + REFRESH_CHUNK_SIZE));
+            List<EmployeeSearchRow> rows = refreshTransaction.execute(status ->
+                    employeeRepository.findSearchRowsByIdIn(chunk));
+            Set<Integer> active = new HashSet<>();
+            for (EmployeeSearchRow row : rows) {
+                put(row);
+                active.add(row.id());
+            }
+            for (Integer id : chunk) {
+                if (!active.contains(id)) {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Ids of the employees whose name contains {@code fragment}, same as {@code name LIKE '%fragment%'}.
+     */
+    public int[] findIdsByNameContaining(String fragment, boolean ignoreCase) {
+        lock.readLock().lock();
+        try {
+            return fields.name.search(fragment, ignoreCase);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] findIdsByEmailContaining(String fragment, boolean ignoreCase) {
+        lock.readLock().lock();
+        try {
+            return fields.email.search(fragment, ignoreCase);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] findIdsByCountryContaining(String fragment, boolean ignoreCase) {
+        lock.readLock().lock();
+        try {
+            return fields.country.search(fragment, ignoreCase);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fields.ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return fields.name.estimatedBytes() + fields.email.estimatedBytes() + fields.country.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        lock.readLock().lock();
+        try {
+            stats.put("employees", fields.ids.size());
+            stats.put("name", stats(fields.name));
+            stats.put("email", stats(fields.email));
+            stats.put("country", stats(fields.country));
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("estimatedBytes", estimatedBytes());
+        stats.put("lastRebuildMillis", lastRebuildTime == null ? null : lastRebuildTime.toMillis());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    private static Map<String, Object> stats(TrigramIndex index) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("values", index.size());
+        stats.put("trigrams", index.trigramCount());
+        stats.put("postings", index.postingsSize());
+        stats.put("estimatedBytes", index.estimatedBytes());
+        return stats;
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Fields {
+
+        private final TrigramIndex name = new TrigramIndex();
+
+        private final TrigramIndex email = new TrigramIndex();
+
+        private final TrigramIndex country = new TrigramIndex();
+
+        private final Set<Integer> ids = new HashSet<>();
+
+        void put(EmployeeSearchRow row) {
+            name.put(row.id(), row.name());
+            email.put(row.id(), row.email());
+            country.put(row.id(), row.country());
+            if (row.name() == null && row.email() == null && row.country() == null) {
+                ids.remove(row.id());
+            } else {
+                ids.add(row.id());
+            }
+        }
+    }
+}
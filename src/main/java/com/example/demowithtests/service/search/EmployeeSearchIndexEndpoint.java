@@ -0,0 +1,32 @@
+package com.example.demowithtests.service.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/searchindex} reports size, estimated memory footprint and last rebuild time,
+ * {@code POST /actuator/searchindex} rebuilds the index from the database.
+ */
+@Component
+@AllArgsConstructor
+@Endpoint(id = "searchindex")
+public class EmployeeSearchIndexEndpoint {
+
+    private final EmployeeSearchIndex searchIndex;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return searchIndex.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        searchIndex.rebuild();
+        return searchIndex.stats();
+    }
+}
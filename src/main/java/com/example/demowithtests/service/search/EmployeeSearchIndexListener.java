@@ -0,0 +1,37 @@
+package com.example.demowithtests.service.search;
+
+import com.example.demowithtests.domain.Employee;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps {@link EmployeeSearchIndex} in line with the employees written through JPA.
+ * Changes reach the index only after the transaction commits, a rollback leaves it untouched.
+ * <p>
+ * Instantiated by Hibernate through the Spring bean container; the index is looked up lazily
+ * because slices like {@code @DataJpaTest} run without it.
+ */
+public class EmployeeSearchIndexListener {
+
+    private final ObjectProvider<EmployeeSearchIndex> searchIndex;
+
+    public EmployeeSearchIndexListener(ObjectProvider<EmployeeSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Employee employee) {
+        // copy now, the entity may change again before the commit
+        var row = new EmployeeSearchRow(employee.getId(), employee.getName(), employee.getEmail(), employee.getCountry());
+        searchIndex.ifAvailable(index -> index.putAfterCommit(row));
+    }
+
+    @PostRemove
+    public void removed(Employee employee) {
+        Integer id = employee.getId();
+        searchIndex.ifAvailable(index -> index.removeAfterCommit(id));
+    }
+}
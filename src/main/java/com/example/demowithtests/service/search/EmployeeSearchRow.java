@@ -0,0 +1,7 @@
+package com.example.demowithtests.service.search;
+
+/**
+ * The attributes of an employee kept in {@link EmployeeSearchIndex}.
+ */
+public record EmployeeSearchRow(Integer id, String name, String email, String country) {
+}
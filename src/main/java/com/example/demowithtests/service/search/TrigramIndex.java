@@ -0,0 +1,195 @@
+package com.example.demowithtests.service.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted index of the trigrams of one text attribute. Each trigram maps to the sorted ids
+ * of the values containing it, kept in a primitive {@code int[]}.
+ * <p>
+ * A substring query intersects the postings of its trigrams and then checks the candidates against
+ * the stored values, so the result is exactly what {@code LIKE '%fragment%'} would return.
+ * Trigrams are built from lower-cased values, which serves both case-sensitive and case-insensitive queries.
+ * <p>
+ * Not thread-safe.
+ */
+public class TrigramIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    // rough JVM sizes with compressed oops, used for the footprint estimate
+    private static final int ENTRY_BYTES = 32 + 16;
+    private static final int POSTINGS_BYTES = 16 + 16;
+    private static final int STRING_BYTES = 24 + 16;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private final Map<Integer, String> values = new HashMap<>();
+
+    private long postingsSize;
+
+    // kept up to date so that the footprint can be reported without walking the index
+    private long postingsCapacity;
+
+    private long valueChars;
+
+    /**
+     * Indexes {@code value} for {@code id}, replacing the previous value. A {@code null} value removes the id.
+     */
+    public void put(int id, String value) {
+        String previous = value == null ? values.remove(id) : values.put(id, value);
+        if (previous != null) {
+            valueChars -= previous.length();
+            if (previous.equals(value)) {
+                valueChars += value.length();
+                return;
+            }
+            for (long trigram : trigrams(previous)) {
+                Postings ids = postings.get(trigram);
+                if (ids.remove(id)) {
+                    postingsSize--;
+                }
+                if (ids.size == 0) {
+                    postings.remove(trigram);
+                    postingsCapacity -= ids.ids.length;
+                }
+            }
+        }
+        if (value != null) {
+            valueChars += value.length();
+            for (long trigram : trigrams(value)) {
+                Postings ids = postings.get(trigram);
+                if (ids == null) {
+                    ids = new Postings();
+                    postings.put(trigram, ids);
+                    postingsCapacity += ids.ids.length;
+                }
+                int capacity = ids.ids.length;
+                if (ids.add(id)) {
+                    postingsSize++;
+                    postingsCapacity += ids.ids.length - capacity;
+                }
+            }
+        }
+    }
+
+    public void remove(int id) {
+        put(id, null);
+    }
+
+    /**
+     * @return ascending ids of the values containing {@code fragment}
+     */
+    public int[] search(String fragment, boolean ignoreCase) {
+        String needle = ignoreCase ? fragment.toLowerCase(Locale.ROOT) : fragment;
+        long[] grams = trigrams(fragment);
+        if (grams.length == 0) {
+            return values.entrySet().stream()
+                    .filter(entry -> matches(entry.getValue(), needle, ignoreCase))
+                    .mapToInt(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+        }
+
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return NO_IDS;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = new int[lists[0].size];
+        int size = 0;
+        candidates:
+        for (int i = 0; i < lists[0].size; i++) {
+            int id = lists[0].ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (Arrays.binarySearch(lists[j].ids, 0, lists[j].size, id) < 0) {
+                    continue candidates;
+                }
+            }
+            if (matches(values.get(id), needle, ignoreCase)) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public int trigramCount() {
+        return postings.size();
+    }
+
+    public long postingsSize() {
+        return postingsSize;
+    }
+
+    /**
+     * Estimated heap footprint in bytes: maps, postings arrays and the stored values.
+     */
+    public long estimatedBytes() {
+        return (long) postings.size() * (ENTRY_BYTES + POSTINGS_BYTES) + 4 * postingsCapacity
+                + (long) values.size() * (ENTRY_BYTES + STRING_BYTES) + valueChars;
+    }
+
+    private static boolean matches(String value, String needle, boolean ignoreCase) {
+        return value != null && (ignoreCase ? value.toLowerCase(Locale.ROOT) : value).contains(needle);
+    }
+
+    /**
+     * Distinct trigrams of the lower-cased text, three UTF-16 chars packed into a long.
+     */
+    static long[] trigrams(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[lower.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Sorted ids, appending is the common case as ids grow.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+
+        private int size;
+
+        boolean add(int id) {
+            int index = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
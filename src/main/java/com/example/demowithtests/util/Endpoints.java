@@ -6,6 +6,10 @@ public interface Endpoints {
 
     String USER_ENDPOINT = "/users";
 
+    String EXPORT_ENDPOINT = "/exports";
+
+    String MAIL_JOB_ENDPOINT = "/mail-jobs";
+
     String API_BASE = "/api";
 
 }
@@ -0,0 +1,30 @@
+package com.example.demowithtests.util;
+
+/**
+ * LIKE patterns with the wildcards of the given text escaped by the default escape character.
+ * A {@code null} text matches every non-null value.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String contains(String text) {
+        return "%" + escape(text) + "%";
+    }
+
+    public static String startsWith(String prefix) {
+        return escape(prefix) + "%";
+    }
+
+    public static String endsWith(String suffix) {
+        return "%" + escape(suffix);
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,35 +1,52 @@
 package com.example.demowithtests.util.annotations;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
 import static com.example.demowithtests.util.annotations.LogColorConstants.ANSI_GREEN;
 import static com.example.demowithtests.util.annotations.LogColorConstants.ANSI_RESET;
 
+/**
+ * Times every public method of the controllers into the {@code controller.calls} timer and logs start and end.
+ */
 @Log4j2
 @Aspect
 @Component
 public class LoggingControllerClassesAspect {
 
-    @Pointcut("execution(public * com.example.demowithtests.web.EmployeeController.*(..))")
-    public void callAtMyControllersPublicMethods() {
+    private final MethodTimers timers;
+
+    public LoggingControllerClassesAspect(MeterRegistry meterRegistry) {
+        this.timers = new MethodTimers("controller.calls", "Execution time of controller methods", meterRegistry);
     }
 
-    @Before("callAtMyControllersPublicMethods()")
-    public void logBefore(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().toShortString();
-        //log.info("Controller: " + methodName + " - start.");
-        log.info(ANSI_GREEN + "Controller: " + methodName + " - start." + ANSI_RESET);
+    @Pointcut("execution(public * com.example.demowithtests.web..*Controller.*(..))")
+    public void callAtMyControllersPublicMethods() {
     }
 
-    @AfterReturning(value = "callAtMyControllersPublicMethods()")
-    public void logAfter(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().toShortString();
-        log.info(ANSI_GREEN + "Controller: " + methodName + " - end." + ANSI_RESET);
+    @Around("callAtMyControllersPublicMethods()")
+    public Object timeAndLog(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (log.isInfoEnabled()) {
+            log.info(ANSI_GREEN + "Controller: {} - start." + ANSI_RESET, joinPoint.getSignature().toShortString());
+        }
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            timers.record(((MethodSignature) joinPoint.getSignature()).getMethod(), System.nanoTime() - start, failure);
+            if (failure == null && log.isInfoEnabled()) {
+                log.info(ANSI_GREEN + "Controller: {} - end." + ANSI_RESET, joinPoint.getSignature().toShortString());
+            }
+        }
     }
 }
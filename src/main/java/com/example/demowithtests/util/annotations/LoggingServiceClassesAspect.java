@@ -1,60 +1,71 @@
 package com.example.demowithtests.util.annotations;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.Collection;
 
 import static com.example.demowithtests.util.annotations.LogColorConstants.ANSI_BLUE;
 import static com.example.demowithtests.util.annotations.LogColorConstants.ANSI_RESET;
 
+/**
+ * Times every public method of the employee and document services into the {@code service.calls} timer and
+ * logs start and end at debug level.
+ */
 @Log4j2
 @Aspect
 @Component
 public class LoggingServiceClassesAspect {
 
-    private LocalDateTime start;
+    private final MethodTimers timers;
 
-    @Pointcut("execution(public * com.example.demowithtests.service.EmployeeServiceBean.*(..))")
+    public LoggingServiceClassesAspect(MeterRegistry meterRegistry) {
+        this.timers = new MethodTimers("service.calls", "Execution time of service methods", meterRegistry);
+    }
+
+    @Pointcut("execution(public * com.example.demowithtests.service.EmployeeServiceBean.*(..))"
+            + " || execution(public * com.example.demowithtests.service.document.DocumentServiceBean.*(..))")
     public void callAtMyServicesPublicMethods() {
     }
 
-    @Before("callAtMyServicesPublicMethods()")
-    public void logBefore(JoinPoint joinPoint) {
-        start = LocalDateTime.now();
-        String methodName = joinPoint.getSignature().toShortString();
-        Object[] args = joinPoint.getArgs();
-        if (args.length > 0) {
-            log.debug(ANSI_BLUE + "Service: " + methodName + " - start. Args count - {}" + ANSI_RESET, args.length);
-        } else {
-            log.debug(ANSI_BLUE + "Service: " + methodName + " - start." + ANSI_RESET);
+    @Around("callAtMyServicesPublicMethods()")
+    public Object timeAndLog(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (log.isDebugEnabled()) {
+            log.debug(ANSI_BLUE + "Service: {} - start. Args count - {}" + ANSI_RESET,
+                    joinPoint.getSignature().toShortString(), joinPoint.getArgs().length);
+        }
+        long start = System.nanoTime();
+        Throwable failure = null;
+        Object returningValue = null;
+        try {
+            returningValue = joinPoint.proceed();
+            return returningValue;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timers.record(((MethodSignature) joinPoint.getSignature()).getMethod(), elapsed, failure);
+            if (failure == null && log.isDebugEnabled()) {
+                log.debug(ANSI_BLUE + "Service: {} - end. Execution time {} ms. Returns - {}" + ANSI_RESET,
+                        joinPoint.getSignature().toShortString(), elapsed / 1_000_000, describe(returningValue));
+            }
         }
     }
 
-    @AfterReturning(value = "callAtMyServicesPublicMethods()", returning = "returningValue")
-    public void logAfter(JoinPoint joinPoint, Object returningValue) {
-        String methodName = joinPoint.getSignature().toShortString();
-        Object outputValue;
-        if (returningValue != null) {
-            if (returningValue instanceof Collection) {
-                outputValue = "Collection size - " + ((Collection<?>) returningValue).size();
-            } else if (returningValue instanceof byte[]) {
-                outputValue = "File as byte[]";
-            } else {
-                outputValue = returningValue;
-            }
-            long result = Duration.between(LocalDateTime.now(), start).toMillis();
-            log.debug(ANSI_BLUE + "Service: " + methodName + " - end. Execution time " + result + " ms. Returns - {}" + ANSI_RESET, outputValue);
-        } else {
-            long result = Duration.between(LocalDateTime.now(), start).toMillis();
-            log.debug(ANSI_BLUE + "Service: " + methodName + " - end. Execution time " + result + " ms." + ANSI_RESET);
+    private static Object describe(Object returningValue) {
+        if (returningValue instanceof Collection<?> collection) {
+            return "Collection size - " + collection.size();
+        }
+        if (returningValue instanceof byte[]) {
+            return "File as byte[]";
         }
+        return returningValue;
     }
 }
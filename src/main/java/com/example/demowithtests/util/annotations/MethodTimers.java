@@ -0,0 +1,57 @@
+package com.example.demowithtests.util.annotations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers of the methods of one layer, tagged with class, method and exception, with a percentile
+ * histogram for Prometheus and the median, p95 and p99 computed in the application for the actuator.
+ * The timer of a method returning normally is built once, recording it does not allocate.
+ */
+final class MethodTimers {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final String name;
+
+    private final String description;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    MethodTimers(String name, String description, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.description = description;
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(Method method, long nanos, Throwable failure) {
+        Timer timer = failure == null
+                ? timers.computeIfAbsent(method, key -> timer(key, "none"))
+                : timer(method, failure.getClass().getSimpleName());
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // registering again returns the timer already registered
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+}
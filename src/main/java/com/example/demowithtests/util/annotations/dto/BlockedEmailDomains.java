@@ -11,8 +11,9 @@ import java.lang.annotation.Target;
  * In the annotation field {@code contains}, you can pass
  * an array of strings with the values of forbidden domains.
  * <p>
- * Condition: The email string should not contain the domains
- * listed in {@code contains}.
+ * Condition: The domain of the email should not be one of the domains
+ * listed in {@code contains} or in the {@code app.email-blocklist.file},
+ * nor a subdomain of one. Case is ignored.
  * <p>
  * Throws: MethodArgumentNotValidException if the string does
  * not meet the conditions.
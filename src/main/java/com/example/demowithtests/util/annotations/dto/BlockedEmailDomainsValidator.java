@@ -1,23 +1,44 @@
 package com.example.demowithtests.util.annotations.dto;
 
+import com.example.demowithtests.util.blocklist.DomainSuffixTrie;
+import com.example.demowithtests.util.blocklist.EmailDomainBlocklist;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
 import java.util.Arrays;
 
+/**
+ * Rejects the domains of the annotation and, when running in Spring, the ones of the {@link EmailDomainBlocklist}
+ * file. Both are matched ignoring case, subdomains included.
+ */
 public class BlockedEmailDomainsValidator implements ConstraintValidator<BlockedEmailDomains, String> {
 
-    private String[] domains;
+    private final EmailDomainBlocklist blocklist;
+
+    private DomainSuffixTrie domains;
+
+    // a validator factory without Spring, only the domains of the annotation are checked
+    public BlockedEmailDomainsValidator() {
+        this.blocklist = null;
+    }
+
+    @Autowired
+    public BlockedEmailDomainsValidator(ObjectProvider<EmailDomainBlocklist> blocklist) {
+        this.blocklist = blocklist.getIfAvailable();
+    }
 
     @Override
     public void initialize(BlockedEmailDomains constraintAnnotation) {
         ConstraintValidator.super.initialize(constraintAnnotation);
-        domains = constraintAnnotation.contains();
+        domains = DomainSuffixTrie.of(Arrays.asList(constraintAnnotation.contains()));
     }
 
     @Override
     public boolean isValid(String email, ConstraintValidatorContext constraintValidatorContext) {
         if (email == null)
             return true;
-        return Arrays.stream(domains).noneMatch(email::endsWith);
+        return !domains.matches(email) && (blocklist == null || !blocklist.isBlocked(email));
     }
 }
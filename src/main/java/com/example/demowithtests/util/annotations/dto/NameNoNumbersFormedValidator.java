@@ -3,17 +3,25 @@ package com.example.demowithtests.util.annotations.dto;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import java.util.Arrays;
-
 public class NameNoNumbersFormedValidator implements ConstraintValidator<NameNoNumbersFormed, String> {
 
 
     @Override
     public void initialize(NameNoNumbersFormed constraintAnnotation) {}
 
+    // the digits of \d, checked without a regex
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        return value == null || !value.matches(".*\\d.*");
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
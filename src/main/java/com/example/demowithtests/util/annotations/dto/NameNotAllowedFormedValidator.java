@@ -1,24 +1,43 @@
 package com.example.demowithtests.util.annotations.dto;
 
+import com.example.demowithtests.util.blocklist.AhoCorasickMatcher;
+import com.example.demowithtests.util.blocklist.RestrictedNameList;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Rejects names containing a term of the annotation or, when running in Spring, of the {@link RestrictedNameList}
+ * file. Case and repeated whitespace are ignored.
+ */
 public class NameNotAllowedFormedValidator implements ConstraintValidator<NameNotAllowedFormed, String> {
 
-    private String[] restrictedNames;
+    private final RestrictedNameList restrictedNameList;
 
+    private AhoCorasickMatcher restrictedNames;
+
+    // a validator factory without Spring, only the terms of the annotation are checked
+    public NameNotAllowedFormedValidator() {
+        this.restrictedNameList = null;
+    }
+
+    @Autowired
+    public NameNotAllowedFormedValidator(ObjectProvider<RestrictedNameList> restrictedNameList) {
+        this.restrictedNameList = restrictedNameList.getIfAvailable();
+    }
 
     @Override
     public void initialize(NameNotAllowedFormed constraintAnnotation) {
         ConstraintValidator.super.initialize(constraintAnnotation);
-        restrictedNames = constraintAnnotation.contains();
+        restrictedNames = AhoCorasickMatcher.of(Arrays.asList(constraintAnnotation.contains()));
     }
 
     @Override
     public boolean isValid(String name, ConstraintValidatorContext context) {
-        return name == null || Arrays.stream(restrictedNames).noneMatch(name.trim()::equalsIgnoreCase);
+        return name == null
+                || !restrictedNames.containsAny(name) && (restrictedNameList == null || !restrictedNameList.isRestricted(name));
     }
 }
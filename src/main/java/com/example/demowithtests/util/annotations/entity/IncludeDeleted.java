@@ -0,0 +1,15 @@
+package com.example.demowithtests.util.annotations.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the employee queries of a service method see soft deleted employees, which the
+ * {@link com.example.demowithtests.domain.Employee#ACTIVE_FILTER} hides otherwise.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IncludeDeleted {
+}
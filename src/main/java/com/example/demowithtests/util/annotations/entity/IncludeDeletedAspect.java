@@ -0,0 +1,72 @@
+package com.example.demowithtests.util.annotations.entity;
+
+import com.example.demowithtests.domain.Employee;
+import jakarta.persistence.EntityManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Session;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Disables the soft delete filter for the duration of an {@link IncludeDeleted} method.
+ * <p>
+ * Filters belong to the session, so the method runs in a transaction, joining the caller's one
+ * if there is any, and the filter is restored afterwards for the rest of that transaction.
+ */
+@Aspect
+@Component
+public class IncludeDeletedAspect {
+
+    private final EntityManager entityManager;
+
+    private final PlatformTransactionManager transactionManager;
+
+    public IncludeDeletedAspect(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+    }
+
+    @Pointcut("@annotation(com.example.demowithtests.util.annotations.entity.IncludeDeleted) && within(com.example.demowithtests.service..*)")
+    public void callAtIncludeDeleted() {
+    }
+
+    @Around("callAtIncludeDeleted()")
+    public Object includeDeleted(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Transactional.class);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // keeps read-only methods on the replicas when the aspect starts the transaction
+        transaction.setReadOnly(transactional != null && transactional.readOnly());
+
+        Throwable[] failure = new Throwable[1];
+        Object result = transaction.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            boolean enabled = session.getEnabledFilter(Employee.ACTIVE_FILTER) != null;
+            session.disableFilter(Employee.ACTIVE_FILTER);
+            try {
+                return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                failure[0] = e;
+                status.setRollbackOnly();
+                return null;
+            } finally {
+                if (enabled) {
+                    session.enableFilter(Employee.ACTIVE_FILTER);
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return result;
+    }
+}
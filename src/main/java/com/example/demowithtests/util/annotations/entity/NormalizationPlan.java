@@ -0,0 +1,182 @@
+package com.example.demowithtests.util.annotations.entity;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import org.hibernate.Hibernate;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * What {@link CustomEntityValidationAspect} does to an instance of one class, worked out once per class:
+ * the {@link ToLowerCase} and {@link Name} string fields with method handles to read and write them, and the
+ * associations saved along with the entity (cascade persist or merge, embedded) that lead to more such fields.
+ * Classes with neither, {@code Address} or a DTO, share the empty plan and cost one lookup.
+ */
+final class NormalizationPlan {
+
+    private static final NormalizationPlan EMPTY = new NormalizationPlan(List.of(), List.of());
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<NormalizationPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected NormalizationPlan computeValue(Class<?> type) {
+            return build(type);
+        }
+    };
+
+    // classes whose plan this thread is building, an association back to one of them is kept
+    private static final ThreadLocal<Set<Class<?>>> BUILDING = ThreadLocal.withInitial(HashSet::new);
+
+    private final List<StringField> fields;
+
+    private final List<MethodHandle> associations;
+
+    private NormalizationPlan(List<StringField> fields, List<MethodHandle> associations) {
+        this.fields = fields;
+        this.associations = associations;
+    }
+
+    /**
+     * Normalizes {@code entity} and the entities saved with it. Lazy associations that are not loaded are skipped.
+     *
+     * @param annotations the normalizations to apply, {@link Name} and/or {@link ToLowerCase}
+     */
+    static void normalize(Object entity, Set<Class<?>> annotations) throws Throwable {
+        if (entity == null || !Hibernate.isInitialized(entity)) {
+            return;
+        }
+        Object target = Hibernate.unproxy(entity);
+        PLANS.get(target.getClass()).apply(target, annotations);
+    }
+
+    private void apply(Object entity, Set<Class<?>> annotations) throws Throwable {
+        for (StringField field : fields) {
+            if (annotations.contains(field.annotation())) {
+                var value = (String) (Object) field.getter().invokeExact(entity);
+                if (value != null) {
+                    field.setter().invokeExact(entity, (Object) field.normalization().apply(value));
+                }
+            }
+        }
+        for (MethodHandle association : associations) {
+            Object value = (Object) association.invokeExact(entity);
+            if (value instanceof Collection<?> collection) {
+                if (Hibernate.isInitialized(collection)) {
+                    for (Object element : collection) {
+                        normalize(element, annotations);
+                    }
+                }
+            } else {
+                normalize(value, annotations);
+            }
+        }
+    }
+
+    private static NormalizationPlan build(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.getName().startsWith("java.")) {
+            return EMPTY;
+        }
+        BUILDING.get().add(type);
+        try {
+            List<StringField> fields = new ArrayList<>();
+            List<MethodHandle> associations = new ArrayList<>();
+            for (Class<?> declaring = type; declaring != null && declaring != Object.class; declaring = declaring.getSuperclass()) {
+                var lookup = MethodHandles.privateLookupIn(declaring, MethodHandles.lookup());
+                for (Field field : declaring.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType() == String.class) {
+                        // lower case first, then the name format, like the aspect always did
+                        if (field.isAnnotationPresent(ToLowerCase.class)) {
+                            fields.add(new StringField(ToLowerCase.class, getter(lookup, field), setter(lookup, field),
+                                    String::toLowerCase));
+                        }
+                        if (field.isAnnotationPresent(Name.class)) {
+                            fields.add(new StringField(Name.class, getter(lookup, field), setter(lookup, field),
+                                    NormalizationPlan::toNameFormat));
+                        }
+                    } else if (isSavedWithOwner(field) && hasWork(associatedType(field))) {
+                        associations.add(getter(lookup, field));
+                    }
+                }
+            }
+            return fields.isEmpty() && associations.isEmpty()
+                    ? EMPTY
+                    : new NormalizationPlan(List.copyOf(fields), List.copyOf(associations));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access the fields of " + type.getName(), e);
+        } finally {
+            BUILDING.get().remove(type);
+        }
+    }
+
+    private static boolean hasWork(Class<?> type) {
+        return type != null && (BUILDING.get().contains(type) || PLANS.get(type) != EMPTY);
+    }
+
+    private static boolean isSavedWithOwner(Field field) {
+        if (field.isAnnotationPresent(Embedded.class)) {
+            return true;
+        }
+        CascadeType[] cascade = field.isAnnotationPresent(OneToMany.class) ? field.getAnnotation(OneToMany.class).cascade()
+                : field.isAnnotationPresent(OneToOne.class) ? field.getAnnotation(OneToOne.class).cascade()
+                : field.isAnnotationPresent(ManyToOne.class) ? field.getAnnotation(ManyToOne.class).cascade()
+                : field.isAnnotationPresent(ManyToMany.class) ? field.getAnnotation(ManyToMany.class).cascade()
+                : new CascadeType[0];
+        for (CascadeType type : cascade) {
+            if (type == CascadeType.ALL || type == CascadeType.PERSIST || type == CascadeType.MERGE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the element type of a collection
+    private static Class<?> associatedType(Field field) {
+        if (!Collection.class.isAssignableFrom(field.getType())) {
+            return field.getType();
+        }
+        if (field.getGenericType() instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        return null;
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        return lookup.unreflectGetter(field).asType(GETTER);
+    }
+
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        return lookup.unreflectSetter(field).asType(SETTER);
+    }
+
+    private static String toNameFormat(String name) {
+        String trimmed = name.trim();
+        return trimmed.substring(0, 1).toUpperCase() + trimmed.substring(1).toLowerCase();
+    }
+
+    private record StringField(Class<? extends Annotation> annotation, MethodHandle getter, MethodHandle setter,
+                               UnaryOperator<String> normalization) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demowithtests.util.blocklist;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of terms found anywhere in a text: {@code putin} is found in {@code "Vladimir PUTIN"}.
+ * Case is folded and runs of whitespace count as one space, in the terms and in the text alike. One pass over the
+ * text finds any of the terms, whatever their number, without allocating.
+ * <p>
+ * An Aho-Corasick automaton: a {@link CharTrie} of the terms where every node also links to the longest proper
+ * suffix of its path that is a trie path too, followed when the next character has no child.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final AhoCorasickMatcher EMPTY = of(List.of());
+
+    private final CharTrie trie;
+
+    private final int[] failure;
+
+    // nodes where a term ends, or one of their suffixes does
+    private final BitSet accepting;
+
+    private AhoCorasickMatcher(CharTrie trie, int[] failure, BitSet accepting) {
+        this.trie = trie;
+        this.failure = failure;
+        this.accepting = accepting;
+    }
+
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param terms blank terms and {@code #} comments are skipped
+     */
+    public static AhoCorasickMatcher of(Collection<String> terms) {
+        var builder = CharTrie.builder();
+        for (String entry : terms) {
+            int comment = entry.indexOf('#');
+            String term = (comment >= 0 ? entry.substring(0, comment) : entry).strip();
+            if (term.isEmpty()) {
+                continue;
+            }
+            var folded = new StringBuilder(term.length());
+            char previous = ' ';
+            for (int i = 0; i < term.length(); i++) {
+                char c = fold(term.charAt(i));
+                if (c == ' ' && previous == ' ') {
+                    continue;
+                }
+                folded.append(c);
+                previous = c;
+            }
+            builder.add(folded);
+        }
+        return link(builder.build());
+    }
+
+    /**
+     * @return {@code true} if one of the terms occurs in {@code text}
+     */
+    public boolean containsAny(CharSequence text) {
+        if (trie.size() == 0) {
+            return false;
+        }
+        int node = 0;
+        char previous = ' ';
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c == ' ' && previous == ' ') {
+                continue;
+            }
+            previous = c;
+            int next = trie.child(node, c);
+            while (next < 0 && node != 0) {
+                node = failure[node];
+                next = trie.child(node, c);
+            }
+            node = Math.max(next, 0);
+            if (accepting.get(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of distinct terms
+     */
+    public int size() {
+        return trie.size();
+    }
+
+    // simple case folding, every whitespace is a space
+    private static char fold(char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return c == '\t' || c == '\n' || c == '\r' || c == '\f' ? ' ' : c;
+        }
+        return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    // nodes are numbered breadth first, so the failure link of a node, always shallower, is known before
+    // the node is reached
+    private static AhoCorasickMatcher link(CharTrie trie) {
+        int[] failure = new int[trie.nodes()];
+        var accepting = new BitSet(trie.nodes());
+        for (int node = 0; node < trie.nodes(); node++) {
+            if (trie.isTerminal(node) || accepting.get(failure[node])) {
+                accepting.set(node);
+            }
+            for (int edge = trie.firstEdge(node); edge < trie.firstEdge(node + 1); edge++) {
+                char c = trie.edgeChar(edge);
+                int target = 0;
+                if (node != 0) {
+                    int fallback = failure[node];
+                    int next = trie.child(fallback, c);
+                    while (next < 0 && fallback != 0) {
+                        fallback = failure[fallback];
+                        next = trie.child(fallback, c);
+                    }
+                    target = Math.max(next, 0);
+                }
+                failure[trie.edgeTarget(edge)] = target;
+            }
+        }
+        return new AhoCorasickMatcher(trie, failure, accepting);
+    }
+}
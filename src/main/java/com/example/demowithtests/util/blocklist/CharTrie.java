@@ -0,0 +1,161 @@
+package com.example.demowithtests.util.blocklist;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie of keys, character by character, stored in flat arrays: the nodes are numbered breadth first
+ * from the root {@code 0}, the children of a node are consecutive edges sorted by character. Tens of thousands of
+ * keys take a few megabytes and a step costs a binary search over the children of one node.
+ * <p>
+ * Built by {@link Builder}; what a key is, and how a text is walked, is up to {@link DomainSuffixTrie} and
+ * {@link AhoCorasickMatcher}.
+ */
+final class CharTrie {
+
+    // children of node n are the edges firstEdge[n] until firstEdge[n + 1], sorted by character
+    private final int[] firstEdge;
+
+    private final char[] edgeChars;
+
+    private final int[] edgeTargets;
+
+    // nodes where a key ends
+    private final BitSet terminal;
+
+    private final int size;
+
+    private CharTrie(int[] firstEdge, char[] edgeChars, int[] edgeTargets, BitSet terminal, int size) {
+        this.firstEdge = firstEdge;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.terminal = terminal;
+        this.size = size;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the child of {@code node} along {@code c}, {@code -1} if there is none
+     */
+    int child(int node, char c) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char edge = edgeChars[middle];
+            if (edge < c) {
+                low = middle + 1;
+            } else if (edge > c) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    boolean isTerminal(int node) {
+        return terminal.get(node);
+    }
+
+    /**
+     * @return number of nodes, the root included; parents are numbered before their children
+     */
+    int nodes() {
+        return firstEdge.length - 1;
+    }
+
+    /**
+     * @return first edge of {@code node}, its edges end at {@code firstEdge(node + 1)}
+     */
+    int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    char edgeChar(int edge) {
+        return edgeChars[edge];
+    }
+
+    int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * @return number of distinct keys
+     */
+    int size() {
+        return size;
+    }
+
+    static final class Builder {
+
+        private final Node root = new Node();
+
+        private int size;
+
+        private Builder() {
+        }
+
+        Builder add(CharSequence key) {
+            var node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            }
+            if (!node.terminal) {
+                node.terminal = true;
+                size++;
+            }
+            return this;
+        }
+
+        // numbers the nodes breadth first, so the children of every node get consecutive edges
+        CharTrie build() {
+            List<Node> nodes = new ArrayList<>();
+            Queue<Node> queue = new ArrayDeque<>();
+            root.index = 0;
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                var node = queue.remove();
+                nodes.add(node);
+                for (Node child : node.children.values()) {
+                    child.index = nodes.size() + queue.size();
+                    queue.add(child);
+                }
+            }
+            int[] firstEdge = new int[nodes.size() + 1];
+            char[] edgeChars = new char[nodes.size() - 1];
+            int[] edgeTargets = new int[nodes.size() - 1];
+            var terminal = new BitSet(nodes.size());
+            int edge = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                var node = nodes.get(i);
+                firstEdge[i] = edge;
+                terminal.set(i, node.terminal);
+                for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                    edgeChars[edge] = child.getKey();
+                    edgeTargets[edge] = child.getValue().index;
+                    edge++;
+                }
+            }
+            firstEdge[nodes.size()] = edge;
+            return new CharTrie(firstEdge, edgeChars, edgeTargets, terminal, size);
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new TreeMap<>();
+
+        private boolean terminal;
+
+        private int index;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demowithtests.util.blocklist;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable set of email domains, each one blocking itself and its subdomains: {@code mail.ru} matches
+ * {@code x@mail.ru} and {@code x@inbox.mail.ru}, not {@code x@gmail.ru}; {@code .ru} matches every domain under
+ * {@code ru}. Matching ignores case and costs one step per character of the domain, whatever the number of entries.
+ * <p>
+ * The domains are stored reversed in a {@link CharTrie}, so tens of thousands of entries take a few megabytes.
+ */
+public final class DomainSuffixTrie {
+
+    private static final DomainSuffixTrie EMPTY = of(List.of());
+
+    private final CharTrie trie;
+
+    private DomainSuffixTrie(CharTrie trie) {
+        this.trie = trie;
+    }
+
+    public static DomainSuffixTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param entries domains with or without a leading {@code .}, {@code *.} or {@code @}; blank entries and
+     *                {@code #} comments are skipped
+     */
+    public static DomainSuffixTrie of(Collection<String> entries) {
+        var builder = CharTrie.builder();
+        for (String entry : entries) {
+            String domain = normalize(entry);
+            if (!domain.isEmpty()) {
+                builder.add(new StringBuilder(domain).reverse());
+            }
+        }
+        return new DomainSuffixTrie(builder.build());
+    }
+
+    /**
+     * @param email an address or a bare domain
+     * @return {@code true} if the domain of {@code email} is one of the entries or a subdomain of one
+     */
+    public boolean matches(String email) {
+        int start = email.lastIndexOf('@') + 1;
+        int node = 0;
+        for (int i = email.length() - 1; i >= start; i--) {
+            char c = lowerCase(email.charAt(i));
+            if (c == '.' && trie.isTerminal(node)) {
+                return true;
+            }
+            node = trie.child(node, c);
+            if (node < 0) {
+                return false;
+            }
+        }
+        return trie.isTerminal(node);
+    }
+
+    /**
+     * @return number of distinct entries
+     */
+    public int size() {
+        return trie.size();
+    }
+
+    private static char lowerCase(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static String normalize(String entry) {
+        String domain = entry;
+        int comment = domain.indexOf('#');
+        if (comment >= 0) {
+            domain = domain.substring(0, comment);
+        }
+        domain = domain.strip().toLowerCase(Locale.ROOT);
+        if (domain.startsWith("*.")) {
+            domain = domain.substring(2);
+        } else if (domain.startsWith(".") || domain.startsWith("@")) {
+            domain = domain.substring(1);
+        }
+        return domain.endsWith(".") ? domain.substring(0, domain.length() - 1) : domain;
+    }
+}
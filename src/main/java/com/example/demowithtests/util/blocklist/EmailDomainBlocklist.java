@@ -0,0 +1,59 @@
+package com.example.demowithtests.util.blocklist;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocked email domains read from a file, one domain per line, see {@link DomainSuffixTrie} for the format.
+ * <p>
+ * The file is reloaded when it changes, see {@link ReloadingFile}. Without a file nothing is blocked.
+ */
+public class EmailDomainBlocklist implements Closeable {
+
+    private final ReloadingFile<DomainSuffixTrie> domains;
+
+    private final Timer lookupTimer;
+
+    public EmailDomainBlocklist(Path file, Duration reloadInterval, MeterRegistry meterRegistry) {
+        this.domains = new ReloadingFile<>("email.blocklist", file, reloadInterval, DomainSuffixTrie::of,
+                DomainSuffixTrie.empty(), DomainSuffixTrie::size, meterRegistry);
+        this.lookupTimer = Timer.builder("email.blocklist.lookup")
+                .description("Time to check an email against the domain blocklist")
+                .register(meterRegistry);
+        Gauge.builder("email.blocklist.domains", this, EmailDomainBlocklist::size)
+                .description("Domains in the email blocklist")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} if the domain of {@code email} or one of its parents is blocked
+     */
+    public boolean isBlocked(String email) {
+        long start = System.nanoTime();
+        boolean blocked = domains.get().matches(email);
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return blocked;
+    }
+
+    public int size() {
+        return domains.get().size();
+    }
+
+    /**
+     * Loads the file if it was modified since the last load.
+     */
+    public void reloadIfChanged() {
+        domains.reloadIfChanged();
+    }
+
+    @Override
+    public void close() {
+        domains.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demowithtests.util.blocklist;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * The lines of a file compiled into a value, compiled again when the file changes.
+ * <p>
+ * The file is checked for a new modification time every reload interval. The new value replaces the current one
+ * at once: a reader sees either the old one or the new one. A file that is missing or cannot be read leaves the
+ * current value in place. Loads are counted in {@code <name>.reloads} by outcome.
+ */
+@Slf4j
+final class ReloadingFile<T> implements Closeable {
+
+    private final String name;
+
+    private final Path file;
+
+    private final Function<List<String>, T> compiler;
+
+    private final ToIntFunction<T> size;
+
+    private final Counter reloads;
+
+    private final Counter failedReloads;
+
+    private final ScheduledExecutorService watcher;
+
+    private volatile T value;
+
+    private FileTime loadedVersion;
+
+    /**
+     * @param file  {@code null} to keep {@code empty} for good
+     * @param size  entries of a value, for the log
+     */
+    ReloadingFile(String name, Path file, Duration reloadInterval, Function<List<String>, T> compiler, T empty,
+                  ToIntFunction<T> size, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.file = file;
+        this.compiler = compiler;
+        this.size = size;
+        this.value = empty;
+        this.reloads = Counter.builder(name + ".reloads")
+                .description("Loads of the " + name + " file")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedReloads = Counter.builder(name + ".reloads")
+                .description("Loads of the " + name + " file")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        if (file == null) {
+            this.watcher = null;
+            return;
+        }
+        reloadIfChanged();
+        this.watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        watcher.scheduleWithFixedDelay(this::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    T get() {
+        return value;
+    }
+
+    /**
+     * Loads the file if it was modified since the last load.
+     */
+    synchronized void reloadIfChanged() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            // taken before reading, a write during the read is picked up by the next check
+            FileTime version = Files.getLastModifiedTime(file);
+            if (version.equals(loadedVersion)) {
+                return;
+            }
+            List<String> lines;
+            try (Stream<String> stream = Files.lines(file)) {
+                lines = stream.toList();
+            }
+            value = compiler.apply(lines);
+            loadedVersion = version;
+            reloads.increment();
+            log.info("reloadIfChanged() - {}: {} entries loaded from {}", name, size.applyAsInt(value), file);
+        } catch (IOException | UncheckedIOException e) {
+            failedReloads.increment();
+            log.warn("reloadIfChanged() - {}: keeping {} entries, cannot read {}: {}",
+                    name, size.applyAsInt(value), file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demowithtests.util.blocklist;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terms a name may not contain, read from a file, one term per line, see {@link AhoCorasickMatcher}.
+ * <p>
+ * The file is reloaded when it changes, see {@link ReloadingFile}. Without a file no name is restricted.
+ */
+public class RestrictedNameList implements Closeable {
+
+    private final ReloadingFile<AhoCorasickMatcher> terms;
+
+    private final Timer lookupTimer;
+
+    public RestrictedNameList(Path file, Duration reloadInterval, MeterRegistry meterRegistry) {
+        this.terms = new ReloadingFile<>("names.restricted", file, reloadInterval, AhoCorasickMatcher::of,
+                AhoCorasickMatcher.empty(), AhoCorasickMatcher::size, meterRegistry);
+        this.lookupTimer = Timer.builder("names.restricted.lookup")
+                .description("Time to screen a name against the restricted terms")
+                .register(meterRegistry);
+        Gauge.builder("names.restricted.terms", this, RestrictedNameList::size)
+                .description("Restricted terms screened in names")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} if {@code name} contains one of the terms
+     */
+    public boolean isRestricted(String name) {
+        long start = System.nanoTime();
+        boolean restricted = terms.get().containsAny(name);
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return restricted;
+    }
+
+    public int size() {
+        return terms.get().size();
+    }
+
+    /**
+     * Loads the file if it was modified since the last load.
+     */
+    public void reloadIfChanged() {
+        terms.reloadIfChanged();
+    }
+
+    @Override
+    public void close() {
+        terms.close();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demowithtests.util.config;
+
+import com.example.demowithtests.util.blocklist.EmailDomainBlocklist;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Blocklist of email domains kept in a file and reloaded while the application runs.
+ */
+@Configuration
+@EnableConfigurationProperties(EmailBlocklistProperties.class)
+public class EmailBlocklistConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmailDomainBlocklist emailDomainBlocklist(EmailBlocklistProperties properties, MeterRegistry meterRegistry) {
+        return new EmailDomainBlocklist(properties.getFile(), properties.getReloadInterval(), meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Email domain blocklist used by {@code @BlockedEmailDomains}, see {@link EmailBlocklistConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.email-blocklist")
+public class EmailBlocklistProperties {
+
+    // one domain per line, subdomains included; none when unset
+    private Path file;
+
+    // how often the file is checked for changes
+    private Duration reloadInterval = Duration.ofSeconds(30);
+}
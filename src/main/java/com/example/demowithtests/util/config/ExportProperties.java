@@ -0,0 +1,31 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Employee export jobs, see {@link ExportConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "employee-exports");
+
+    // jobs running at the same time, each one holds a connection for its whole run
+    private int threads = 2;
+
+    // jobs waiting for a thread, further ones are rejected
+    private int queueCapacity = 10;
+
+    // rows the JDBC driver fetches per round trip of the cursor
+    private int fetchSize = 1_000;
+
+    // finished jobs and their files are removed after this time
+    private Duration retention = Duration.ofHours(24);
+}
@@ -1,31 +1,48 @@
 package com.example.demowithtests.util.config;
 
+import com.example.demowithtests.repository.MailOutboxRepository;
+import com.example.demowithtests.service.emailService.EmailSenderService;
+import com.example.demowithtests.service.mail.MailDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
-import java.util.Properties;
-
+/**
+ * Mail server from {@code spring.mail}, and the delivery of the mail outbox configured under
+ * {@code app.mail.outbox}.
+ */
 @Configuration
+@EnableConfigurationProperties({MailProperties.class, MailOutboxProperties.class})
 public class MailConfig {
 
     @Bean
-    public JavaMailSender getJavaMailSender() {
+    public JavaMailSender getJavaMailSender(MailProperties properties) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
 
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
-
-        mailSender.setUsername("kaluzny.oleg@gmail.com");
-        mailSender.setPassword(System.getenv("SMTP_PASSWORD"));
-
-        Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.protocol", "smtp");
-        props.put("mail.test-connection", "true");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
+        mailSender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            mailSender.setPort(properties.getPort());
+        }
+        mailSender.setUsername(properties.getUsername());
+        mailSender.setPassword(properties.getPassword());
+        mailSender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            mailSender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        mailSender.getJavaMailProperties().putAll(properties.getProperties());
 
         return mailSender;
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "close")
+    public MailDispatcher mailDispatcher(MailOutboxRepository mailOutboxRepository,
+                                         EmailSenderService emailSenderService,
+                                         MailOutboxProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return new MailDispatcher(mailOutboxRepository, emailSenderService, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Delivery of the mail outbox, see {@link MailConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.mail.outbox")
+public class MailOutboxProperties {
+
+    // whether this instance delivers the outbox, jobs are still queued without it
+    private boolean enabled = true;
+
+    private String from;
+
+    // off: every message goes to testRecipient, the employees' own addresses are only recorded in the outbox
+    private boolean deliverToEmployees = false;
+
+    private String testRecipient = "kaluzny.oleg@gmail.com";
+
+    // connections to the mail server at the same time
+    private int threads = 4;
+
+    // messages sent over one connection
+    private int messagesPerConnection = 20;
+
+    // how often the outbox is checked for due messages, new jobs are picked up at once
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int maxAttempts = 5;
+
+    // wait after the first failed attempt, doubled after each further one up to maxBackoff
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofMinutes(30);
+
+    // a message claimed this long ago and still not sent is due again, its instance is considered dead
+    private Duration lease = Duration.ofMinutes(5);
+}
@@ -0,0 +1,63 @@
+package com.example.demowithtests.util.config;
+
+import com.example.demowithtests.util.profiling.ProfilingDataSource;
+import com.example.demowithtests.util.profiling.RequestProfiler;
+import com.example.demowithtests.util.profiling.RequestProfilingAspect;
+import com.example.demowithtests.util.profiling.RequestProfilingFilter;
+import com.example.demowithtests.util.profiling.SlowRequestsEndpoint;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Profiles every request: SQL statements and their time, time in the services and the mappers, bytes allocated,
+ * the slowest requests are kept for {@code /actuator/slowrequests}. Each JDBC call goes through a proxy then,
+ * so it is off unless {@code app.profiling.enabled} is set.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the one the application uses, the routing one with replicas
+                return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                        ? ProfilingDataSource.wrap(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public RequestProfiler requestProfiler(ProfilingProperties properties) {
+        return new RequestProfiler(properties.getSlowest(), properties.getRepeatedSelectThreshold());
+    }
+
+    @Bean
+    public RequestProfilingAspect requestProfilingAspect() {
+        return new RequestProfilingAspect();
+    }
+
+    @Bean
+    public SlowRequestsEndpoint slowRequestsEndpoint(RequestProfiler requestProfiler) {
+        return new SlowRequestsEndpoint(requestProfiler);
+    }
+
+    // inside the request logging, so the profile covers security and the rest of the filters
+    @Bean
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter(RequestProfiler requestProfiler) {
+        var registration = new FilterRegistrationBean<>(new RequestProfilingFilter(requestProfiler));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
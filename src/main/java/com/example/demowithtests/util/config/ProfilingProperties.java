@@ -0,0 +1,22 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request profiling, see {@link ProfilingConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.profiling")
+public class ProfilingProperties {
+
+    private boolean enabled;
+
+    // requests kept by /actuator/slowrequests
+    private int slowest = 20;
+
+    // the same select sent this many times in one request is reported as an N+1
+    private int repeatedSelectThreshold = 3;
+}
@@ -0,0 +1,25 @@
+package com.example.demowithtests.util.config;
+
+import com.example.demowithtests.util.logging.RequestLoggingFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-endpoint sampling of the request logs. The filter runs first, so the logs of security see the decision too.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class RequestLoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilter(RequestLoggingProperties properties) {
+        var sampling = properties.getSampling();
+        var registration = new FilterRegistrationBean<>(new RequestLoggingFilter(
+                sampling.getEndpoints(), sampling.getDefaultRate(), sampling.getSlowThreshold()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logging pipeline, see {@code logback-spring.xml} and {@link RequestLoggingConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.logging")
+public class RequestLoggingProperties {
+
+    // text or json, read by logback-spring.xml
+    private String format = "text";
+
+    // events waiting for the console, read by logback-spring.xml; further ones are dropped and counted
+    private int queueSize = 8192;
+
+    private Sampling sampling = new Sampling();
+
+    @Getter
+    @Setter
+    public static class Sampling {
+
+        // share of the requests logged in full: the request line, SQL and the method logs of the aspects
+        private double defaultRate = 1.0;
+
+        // rate by path pattern, the first matching one wins, e.g. "[/api/users/**]": 0.01
+        private Map<String, Double> endpoints = new LinkedHashMap<>();
+
+        // requests this slow, or failing with 5xx, get their request line even when not sampled
+        private Duration slowThreshold = Duration.ofSeconds(1);
+    }
+}
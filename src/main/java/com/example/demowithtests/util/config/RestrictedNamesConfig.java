@@ -0,0 +1,20 @@
+package com.example.demowithtests.util.config;
+
+import com.example.demowithtests.util.blocklist.RestrictedNameList;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Restricted name terms kept in a file and reloaded while the application runs.
+ */
+@Configuration
+@EnableConfigurationProperties(RestrictedNamesProperties.class)
+public class RestrictedNamesConfig {
+
+    @Bean(destroyMethod = "close")
+    public RestrictedNameList restrictedNameList(RestrictedNamesProperties properties, MeterRegistry meterRegistry) {
+        return new RestrictedNameList(properties.getFile(), properties.getReloadInterval(), meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demowithtests.util.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Terms screened in names by {@code @NameNotAllowedFormed}, see {@link RestrictedNamesConfig}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.restricted-names")
+public class RestrictedNamesProperties {
+
+    // one term per line, found anywhere in a name; none when unset
+    private Path file;
+
+    // how often the file is checked for changes
+    private Duration reloadInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,37 @@
+package com.example.demowithtests.util.config;
+
+import com.example.demowithtests.domain.Employee;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Hides soft deleted employees from every JPQL/Criteria read by enabling {@link Employee#ACTIVE_FILTER}
+ * on the entity manager of each transaction. Repository methods always run in one, so do service reads.
+ * Methods annotated with {@link com.example.demowithtests.util.annotations.entity.IncludeDeleted} see deleted rows.
+ */
+@Configuration
+public class SoftDeleteFilterConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new SoftDeleteTransactionManager();
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+
+    static class SoftDeleteTransactionManager extends JpaTransactionManager {
+
+        @Override
+        protected EntityManager createEntityManagerForTransaction() {
+            EntityManager entityManager = super.createEntityManagerForTransaction();
+            entityManager.unwrap(Session.class).enableFilter(Employee.ACTIVE_FILTER);
+            return entityManager;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demowithtests.util.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A conditional write found the resource in another state than the caller expected,
+ * e.g. a newer version than the one in {@code If-Match}.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ResourceConflictException extends RuntimeException {
+
+    public ResourceConflictException(String message) {
+        super(message);
+    }
+}
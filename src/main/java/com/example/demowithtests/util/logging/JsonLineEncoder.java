@@ -0,0 +1,103 @@
+package com.example.demowithtests.util.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * One JSON object per line: timestamp, level, logger, thread, message, the MDC entries, the key-value pairs of the
+ * event and the stack trace, if any. The ANSI colours some messages carry for the console are removed.
+ */
+public class JsonLineEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_SIZE = 512;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Ignored, accepted so that logback-spring.xml declares one console appender for both formats.
+     */
+    public void setPattern(String pattern) {
+    }
+
+    /**
+     * Ignored, JSON is always written in UTF-8.
+     */
+    public void setCharset(Charset charset) {
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        var out = new ByteArrayOutputStream(INITIAL_SIZE);
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", event.getInstant().toString());
+            json.writeStringField("level", event.getLevel().toString());
+            json.writeStringField("logger", event.getLoggerName());
+            json.writeStringField("thread", event.getThreadName());
+            json.writeStringField("message", withoutAnsi(event.getFormattedMessage()));
+            for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+                json.writeStringField(entry.getKey(), entry.getValue());
+            }
+            if (event.getKeyValuePairs() != null) {
+                for (KeyValuePair pair : event.getKeyValuePairs()) {
+                    json.writeFieldName(pair.key);
+                    if (pair.value instanceof Number number) {
+                        json.writeNumber(number.toString());
+                    } else if (pair.value instanceof Boolean bool) {
+                        json.writeBoolean(bool);
+                    } else {
+                        json.writeString(String.valueOf(pair.value));
+                    }
+                }
+            }
+            if (event.getThrowableProxy() != null) {
+                json.writeStringField("exception", ThrowableProxyUtil.asString(event.getThrowableProxy()));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    // drops ESC [ ... m sequences
+    private static String withoutAnsi(String message) {
+        if (message == null || message.indexOf('\u001B') < 0) {
+            return message;
+        }
+        var text = new StringBuilder(message.length());
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\u001B' && i + 1 < message.length() && message.charAt(i + 1) == '[') {
+                int end = message.indexOf('m', i);
+                if (end > 0) {
+                    i = end;
+                    continue;
+                }
+            }
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demowithtests.util.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides per request whether it is logged in full, at the rate of the first endpoint pattern matching its path,
+ * and keeps the decision in the MDC under {@link #SAMPLED} for {@link RequestSamplingTurboFilter}. A sampled
+ * request ends with one line holding method, path, status and duration; a request that is not sampled gets that
+ * line only when it is slow or fails with a 5xx status.
+ */
+@Slf4j
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String SAMPLED = "sampled";
+
+    private final List<EndpointRate> rates = new ArrayList<>();
+
+    private final double defaultRate;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * @param rates share of the requests to sample, from 0 to 1, by path pattern such as {@code /api/users/**}
+     */
+    public RequestLoggingFilter(Map<String, Double> rates, double defaultRate, Duration slowThreshold) {
+        rates.forEach((pattern, rate) -> this.rates.add(new EndpointRate(PathPatternParser.defaultInstance.parse(pattern), rate)));
+        this.defaultRate = defaultRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        double rate = rate(request.getRequestURI());
+        boolean sampled = rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+        MDC.put(SAMPLED, Boolean.toString(sampled));
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = response.getStatus();
+            if (sampled || status >= 500 || elapsed >= slowThresholdNanos) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                log.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", status)
+                        .addKeyValue("durationMs", millis)
+                        .log("{} {} {} {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+            }
+            MDC.remove(SAMPLED);
+        }
+    }
+
+    double rate(String path) {
+        if (rates.isEmpty()) {
+            return defaultRate;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (EndpointRate endpoint : rates) {
+            if (endpoint.pattern().matches(container)) {
+                return endpoint.rate();
+            }
+        }
+        return defaultRate;
+    }
+
+    private record EndpointRate(PathPattern pattern, double rate) {
+    }
+}
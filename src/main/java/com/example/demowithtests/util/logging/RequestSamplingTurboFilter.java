@@ -0,0 +1,45 @@
+package com.example.demowithtests.util.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops the events of the configured loggers, and of the loggers below them, while serving a request that
+ * {@link RequestLoggingFilter} did not sample. Logging outside of requests is not affected.
+ * <pre>
+ * &lt;turboFilter class="...RequestSamplingTurboFilter"&gt;
+ *     &lt;logger&gt;org.hibernate.SQL&lt;/logger&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class RequestSamplingTurboFilter extends TurboFilter {
+
+    private final List<String> loggers = new ArrayList<>();
+
+    public void addLogger(String logger) {
+        loggers.add(logger);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // checked first, it is what most events stop at
+        if (!"false".equals(MDC.get(RequestLoggingFilter.SAMPLED))) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String sampled : loggers) {
+            if (name.startsWith(sampled)
+                    && (name.length() == sampled.length() || name.charAt(sampled.length()) == '.')) {
+                return FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
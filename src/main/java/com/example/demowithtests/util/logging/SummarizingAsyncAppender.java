@@ -0,0 +1,218 @@
+package com.example.demowithtests.util.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous appender that never blocks the logging thread: an event arriving while the queue is full is
+ * dropped and counted, and once the queue has room again a WARN event reports how many were lost.
+ * Events are kept whatever their level until the queue is full, unless a {@code discardingThreshold} is set.
+ * <p>
+ * Owns its queue and worker thread instead of extending logback's {@code AsyncAppender}, whose offer to the
+ * queue is private and ignores a refused event: here every refused offer is counted.
+ */
+public class SummarizingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+
+    public static final int DEFAULT_MAX_FLUSH_TIME = 1000;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    // with less room left, TRACE, DEBUG and INFO events are dropped to keep it for WARN and ERROR
+    private int discardingThreshold;
+
+    private boolean includeCallerData;
+
+    // how long stop() waits for the queued events to be written (ms)
+    private int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
+
+    private BlockingQueue<ILoggingEvent> queue;
+
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size " + queueSize);
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        worker = new Thread(this::work, "SummarizingAsyncAppender-Worker-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(maxFlushTime);
+            if (worker.isAlive()) {
+                addWarn("Max flush time of " + maxFlushTime + " ms exceeded, " + queue.size() + " events discarded");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            addError("Interrupted while waiting for the queued events to be written", e);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // the worker writes the event later, on another thread
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (discardingThreshold > 0 && queue.remainingCapacity() < discardingThreshold
+                && event.getLevel().toInt() <= Level.INFO_INT) {
+            dropped.incrementAndGet();
+            return;
+        }
+        // the summary waits while it would take the last place
+        if (dropped.get() > 0 && queue.remainingCapacity() > 1) {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0 && !queue.offer(summary(lost))) {
+                dropped.addAndGet(lost);
+            }
+        }
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void work() {
+        List<ILoggingEvent> events = new ArrayList<>();
+        while (isStarted()) {
+            try {
+                events.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(events);
+            events.forEach(appenders::appendLoopOnAppenders);
+            events.clear();
+        }
+        // stopped: write what is left
+        queue.drainTo(events);
+        events.forEach(appenders::appendLoopOnAppenders);
+        appenders.detachAndStopAllAppenders();
+    }
+
+    /**
+     * @return events dropped since the last summary
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getNumberOfElementsInQueue() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public int getRemainingCapacity() {
+        return queue == null ? queueSize : queue.remainingCapacity();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+    private ILoggingEvent summary(long lost) {
+        var logger = ((LoggerContext) getContext()).getLogger(SummarizingAsyncAppender.class);
+        var summary = new LoggingEvent(SummarizingAsyncAppender.class.getName(), logger, Level.WARN,
+                "{} log events dropped by appender {}, its queue of {} was full",
+                null, new Object[]{lost, getName(), queueSize});
+        summary.prepareForDeferredProcessing();
+        return summary;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demowithtests.util.mappers;
 import com.example.demowithtests.domain.Employee;
 import com.example.demowithtests.dto.*;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -27,5 +28,7 @@ public interface EmployeeMapper {
 
     List<EmployeeDeleteDto> toListDeleteEmployeeDto(List<Employee> employees);
 
+    // a new employee starts at the version Hibernate gives it
+    @Mapping(target = "version", ignore = true)
     Employee toEmployee(EmployeeSaveDto employeeSaveDto);
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.demowithtests.util.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset scroll positions into opaque URL-safe tokens and back.
+ * <p>
+ * A token carries the values of the sort columns of the last row of a window,
+ * so the next window can seek on {@code (sort key, id)} instead of using OFFSET.
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param position position of the last row returned, may be {@code null}
+     * @return opaque token, or {@code null} when there is nothing to continue from
+     */
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(keyset.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    /**
+     * @param token token received with a previous window, {@code null} or blank for the first one
+     * @param sort  full keyset sort (including {@code id}) the token must have been produced with
+     * @return values of the sort columns to seek after, empty for the first window
+     * @throws IllegalArgumentException if the token is malformed or was produced for another sort
+     */
+    public static Map<String, Object> decode(String token, Sort sort) {
+        if (token == null || token.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> keys;
+        try {
+            keys = MAPPER.readValue(Base64.getUrlDecoder().decode(token), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+        if (sort.stream().anyMatch(order -> !keys.containsKey(order.getProperty()))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort " + sort);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demowithtests.util.pagination;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.NullPrecedence;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seek predicates for keyset pagination.
+ * <p>
+ * For a sort {@code (a, b, id)} the predicate is
+ * {@code a >= :a and (a > :a or a = :a and b > :b or a = :a and b = :b and id > :id)}.
+ * The redundant leading bound lets the database start a range scan on the {@code (a, id)}
+ * index instead of filtering the whole index from its beginning.
+ * <p>
+ * Sort columns may be null. Nulls come after every value, ascending and descending alike, which is
+ * {@code ASC NULLS LAST} and {@code DESC NULLS FIRST}: the default of PostgreSQL, so one {@code (a, id)}
+ * index serves both directions. A null bound is compared with {@code IS NULL}/{@code IS NOT NULL},
+ * {@code a > null} would match nothing and lose the rows after it.
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * Also orders the query by {@code sort} with the null ordering above. Spring Data drops the null handling
+     * of a {@link Sort} for criteria queries, so the query must not be sorted again by the caller.
+     *
+     * @param keys values of the last row of the previous window, empty for the first window
+     * @param sort full keyset sort, its last order must be on a unique column
+     * @return specification selecting the rows strictly after {@code keys} in {@code sort} order
+     */
+    public static <T> Specification<T> seekAfter(Map<String, Object> keys, Sort sort) {
+        return (root, query, cb) -> {
+            List<Sort.Order> orders = sort.toList();
+            query.orderBy(orders.stream().map(order -> order(cb, root, order)).toList());
+            if (keys.isEmpty()) {
+                return null;
+            }
+            List<Predicate> alternatives = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                List<Predicate> conjunction = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    conjunction.add(equal(cb, root, orders.get(j), keys));
+                }
+                conjunction.add(compare(cb, root, orders.get(i), keys, false));
+                alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+            }
+            Predicate seek = cb.or(alternatives.toArray(Predicate[]::new));
+            if (orders.size() == 1) {
+                return seek;
+            }
+            return cb.and(compare(cb, root, orders.get(0), keys, true), seek);
+        };
+    }
+
+    private static jakarta.persistence.criteria.Order order(CriteriaBuilder cb, Root<?> root, Sort.Order order) {
+        Path<?> path = root.get(order.getProperty());
+        if (order.isAscending()) {
+            return ((JpaOrder) cb.asc(path)).nullPrecedence(NullPrecedence.LAST);
+        }
+        return ((JpaOrder) cb.desc(path)).nullPrecedence(NullPrecedence.FIRST);
+    }
+
+    private static Predicate equal(CriteriaBuilder cb, Root<?> root, Sort.Order order, Map<String, Object> keys) {
+        Path<?> path = root.get(order.getProperty());
+        Object value = value(root, order, keys);
+        return value == null ? cb.isNull(path) : cb.equal(path, value);
+    }
+
+    // rows after (or at, if inclusive) the value in sort order, where nulls are the greatest values
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Root<?> root, Sort.Order order,
+                                     Map<String, Object> keys, boolean inclusive) {
+        Expression<Comparable> path = root.get(order.getProperty());
+        Comparable value = (Comparable) value(root, order, keys);
+        if (order.isAscending()) {
+            if (value == null) {
+                return inclusive ? cb.isNull(path) : cb.disjunction();
+            }
+            return cb.or(inclusive ? cb.greaterThanOrEqualTo(path, value) : cb.greaterThan(path, value),
+                    cb.isNull(path));
+        }
+        if (value == null) {
+            return inclusive ? cb.conjunction() : cb.isNotNull(path);
+        }
+        return inclusive ? cb.lessThanOrEqualTo(path, value) : cb.lessThan(path, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object value(Root<?> root, Sort.Order order, Map<String, Object> keys) {
+        Path<?> path = root.get(order.getProperty());
+        Object value = keys.get(order.getProperty());
+        // cursor values come back from JSON as strings and numbers
+        if (value instanceof String name && path.getJavaType().isEnum()) {
+            return Enum.valueOf((Class<Enum>) path.getJavaType(), name);
+        }
+        if (value instanceof Number number && path.getJavaType() == Long.class) {
+            return number.longValue();
+        }
+        return value;
+    }
+}
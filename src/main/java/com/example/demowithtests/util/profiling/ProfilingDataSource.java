@@ -0,0 +1,82 @@
+package com.example.demowithtests.util.profiling;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Wraps a data source so that the statements executed through it are counted and timed into the
+ * {@link RequestProfile} of the thread. Everything going through JDBC is seen: Hibernate, Spring Data and
+ * {@code JdbcTemplate} alike. A batch counts as one statement, like the round trip it is; the time is that of the
+ * execution, reading the rows of a result set is not included.
+ */
+public final class ProfilingDataSource {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private ProfilingDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(dataSource, (method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return method.getName().equals("getConnection") ? wrap((Connection) result) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(connection, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (PREPARE_METHODS.contains(method.getName())) {
+                return wrap((Statement) result, (String) args[0]);
+            }
+            return method.getName().equals("createStatement") ? wrap((Statement) result, null) : result;
+        });
+    }
+
+    private static Statement wrap(Statement statement, String preparedSql) {
+        return proxy(statement, (method, args) -> {
+            RequestProfile profile = RequestProfile.current();
+            if (profile == null || !EXECUTE_METHODS.contains(method.getName())) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                profile.statementExecuted(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, InvocationHandlerBody body) {
+        InvocationHandler handler = (proxy, method, args) -> body.invoke(method, args);
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), interfaces, handler);
+    }
+
+    @FunctionalInterface
+    private interface InvocationHandlerBody {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
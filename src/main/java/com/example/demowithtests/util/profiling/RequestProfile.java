@@ -0,0 +1,120 @@
+package com.example.demowithtests.util.profiling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What one request spent its time on, filled in by the thread serving it: SQL statements, mapping and service
+ * calls. Set for the thread by {@link RequestProfiler#start} and read with {@link #current()} by the data source
+ * wrapper and {@link RequestProfilingAspect}; there is nothing to record outside of a request.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    // distinct statements counted for the N+1 detection, a request sending more is not followed further
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    private final long[] layerNanos = new long[Layer.values().length];
+
+    private final int[] layerDepth = new int[Layer.values().length];
+
+    private int statements;
+
+    private long sqlNanos;
+
+    public enum Layer {
+        MAPPER, SERVICE
+    }
+
+    RequestProfile() {
+    }
+
+    /**
+     * @return profile of the request served by this thread, {@code null} outside of a request
+     */
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    static void set(RequestProfile profile) {
+        if (profile == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(profile);
+        }
+    }
+
+    public void statementExecuted(String sql, long nanos) {
+        statements++;
+        sqlNanos += nanos;
+        if (sql != null && isRepeatable(sql)
+                && (selects.size() < MAX_DISTINCT_STATEMENTS || selects.containsKey(sql))) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * @return {@code true} if this call is the outermost one of its layer and is to be timed, mappers calling
+     * mappers and services calling services are counted once
+     */
+    public boolean enter(Layer layer) {
+        return layerDepth[layer.ordinal()]++ == 0;
+    }
+
+    public void exit(Layer layer, long nanos) {
+        if (--layerDepth[layer.ordinal()] == 0) {
+            layerNanos[layer.ordinal()] += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long sqlNanos() {
+        return sqlNanos;
+    }
+
+    public long nanos(Layer layer) {
+        return layerNanos[layer.ordinal()];
+    }
+
+    /**
+     * Selects sent at least {@code threshold} times with the same text, the sign of an N+1: a lazy association
+     * or a per-row lookup loaded one owner at a time.
+     *
+     * @return most repeated first
+     */
+    public List<RepeatedStatement> repeatedSelects(int threshold) {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        selects.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.add(new RepeatedStatement(sql, count));
+            }
+        });
+        repeated.sort((a, b) -> Integer.compare(b.count(), a.count()));
+        return repeated;
+    }
+
+    // selects only, except the ones fetching id blocks of the sequences, repeated on purpose
+    private static boolean isRepeatable(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        if (!sql.regionMatches(true, start, "select", 0, 6)) {
+            return false;
+        }
+        String lower = sql.toLowerCase(Locale.ROOT);
+        return !lower.contains("nextval(") && !lower.contains("next value for");
+    }
+
+    public record RepeatedStatement(String sql, int count) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demowithtests.util.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the profiles of the slowest requests since start or the last {@link #reset()}, see
+ * {@link SlowRequestsEndpoint}. A request faster than the slowest ones kept costs one volatile read.
+ */
+public class RequestProfiler {
+
+    private static final Comparator<SlowRequest> BY_DURATION = Comparator.comparingDouble(SlowRequest::durationMs);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private final int capacity;
+
+    private final int repeatedSelectThreshold;
+
+    // fastest of the kept requests first
+    private final PriorityQueue<SlowRequest> slowest;
+
+    // duration a request must exceed to be kept once the queue is full
+    private volatile double thresholdMs;
+
+    /**
+     * @param capacity                number of requests kept
+     * @param repeatedSelectThreshold same select sent this many times in a request is reported as an N+1
+     */
+    public RequestProfiler(int capacity, int repeatedSelectThreshold) {
+        this.capacity = capacity;
+        this.repeatedSelectThreshold = repeatedSelectThreshold;
+        this.slowest = new PriorityQueue<>(capacity, BY_DURATION);
+    }
+
+    /**
+     * Starts recording the request served by the current thread.
+     */
+    public Recording start() {
+        var profile = new RequestProfile();
+        RequestProfile.set(profile);
+        return new Recording(profile, Instant.now(), System.nanoTime(), allocatedBytes());
+    }
+
+    /**
+     * Stops recording and keeps the request if it is among the slowest.
+     *
+     * @param route pattern of the handler, such as {@code /api/users/{id}}, or {@code null}
+     */
+    public void finish(Recording recording, String method, String path, String route, int status) {
+        long elapsed = System.nanoTime() - recording.startNanos();
+        long allocated = recording.allocatedBytes() < 0 ? -1 : allocatedBytes() - recording.allocatedBytes();
+        RequestProfile.set(null);
+        double durationMs = millis(elapsed);
+        if (durationMs <= thresholdMs) {
+            return;
+        }
+        RequestProfile profile = recording.profile();
+        var request = new SlowRequest(recording.startedAt(), method, path, route, status, durationMs,
+                profile.statements(), millis(profile.sqlNanos()),
+                millis(profile.nanos(RequestProfile.Layer.SERVICE)), millis(profile.nanos(RequestProfile.Layer.MAPPER)),
+                allocated, profile.repeatedSelects(repeatedSelectThreshold));
+        synchronized (slowest) {
+            slowest.add(request);
+            if (slowest.size() > capacity) {
+                slowest.remove();
+            }
+            if (slowest.size() == capacity) {
+                thresholdMs = slowest.element().durationMs();
+            }
+        }
+    }
+
+    /**
+     * @return slowest first
+     */
+    public List<SlowRequest> slowest() {
+        List<SlowRequest> requests;
+        synchronized (slowest) {
+            requests = new ArrayList<>(slowest);
+        }
+        requests.sort(BY_DURATION.reversed());
+        return requests;
+    }
+
+    public void reset() {
+        synchronized (slowest) {
+            slowest.clear();
+            thresholdMs = 0;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    // -1 where the JVM does not measure the allocations of a thread
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    public record Recording(RequestProfile profile, Instant startedAt, long startNanos, long allocatedBytes) {
+    }
+
+    /**
+     * Where a request spent its time. SQL and mapping usually run inside service calls, their times overlap;
+     * what the service calls leave of the duration went to the controller, the serialization of the response
+     * and the filters. Allocations are those of the thread serving the request, -1 if the JVM does not count them.
+     */
+    public record SlowRequest(Instant startedAt, String method, String path, String route, int status,
+                              double durationMs, int sqlStatements, double sqlMs, double serviceMs, double mapperMs,
+                              long allocatedBytes, List<RequestProfile.RepeatedStatement> repeatedSelects) {
+    }
+}
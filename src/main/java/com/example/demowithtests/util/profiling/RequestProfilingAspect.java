@@ -0,0 +1,36 @@
+package com.example.demowithtests.util.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Adds the time spent in the mappers and the services to the {@link RequestProfile} of the request.
+ */
+@Aspect
+public class RequestProfilingAspect {
+
+    @Around("execution(public * com.example.demowithtests.util.mappers.*Mapper+.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, RequestProfile.Layer.MAPPER);
+    }
+
+    @Around("com.example.demowithtests.util.annotations.LoggingServiceClassesAspect.callAtMyServicesPublicMethods()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, RequestProfile.Layer.SERVICE);
+    }
+
+    private static Object time(ProceedingJoinPoint joinPoint, RequestProfile.Layer layer) throws Throwable {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = profile.enter(layer);
+        long start = outermost ? System.nanoTime() : 0;
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profile.exit(layer, outermost ? System.nanoTime() - start : 0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demowithtests.util.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Profiles every request with {@link RequestProfiler}. A request going asynchronous, such as the NDJSON stream of
+ * {@code GET /api/users}, is profiled until the servlet thread lets go of it.
+ */
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private final RequestProfiler profiler;
+
+    public RequestProfilingFilter(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfiler.Recording recording = profiler.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            profiler.finish(recording, request.getMethod(), request.getRequestURI(),
+                    route != null ? route.toString() : null, response.getStatus());
+        }
+    }
+}
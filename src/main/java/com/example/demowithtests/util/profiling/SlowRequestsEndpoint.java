@@ -0,0 +1,31 @@
+package com.example.demowithtests.util.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowrequests} lists the slowest requests with their SQL, service and mapping time,
+ * allocations and repeated selects, {@code DELETE /actuator/slowrequests} starts over.
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final RequestProfiler profiler;
+
+    public SlowRequestsEndpoint(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<RequestProfiler.SlowRequest> slowest() {
+        return profiler.slowest();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
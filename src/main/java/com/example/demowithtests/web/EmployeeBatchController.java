@@ -0,0 +1,63 @@
+package com.example.demowithtests.web;
+
+import com.example.demowithtests.dto.EmployeeBatchResultDto;
+import com.example.demowithtests.dto.EmployeeImportResultDto;
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.service.batch.EmployeeBatchService;
+import com.example.demowithtests.service.batch.ImportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static com.example.demowithtests.util.Endpoints.API_BASE;
+import static com.example.demowithtests.util.Endpoints.USER_ENDPOINT;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping(API_BASE)
+@Slf4j
+@Tag(name = "Employee", description = "Employee API")
+public class EmployeeBatchController {
+
+    private final EmployeeBatchService employeeBatchService;
+
+    @PostMapping(USER_ENDPOINT + "/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "This is endpoint to add many employees at once.", description = "Create request to add a list of employees in one transaction, items that fail it are reported one by one.", tags = {"Employee"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK. Every item is reported as CREATED or REJECTED with its errors."),
+            @ApiResponse(responseCode = "400", description = "Invalid input")})
+    public List<EmployeeBatchResultDto> saveEmployees(@RequestBody List<EmployeeSaveDto> requestsForSave) {
+        log.debug("saveEmployees() - start: size = {}", requestsForSave.size());
+        var results = employeeBatchService.saveAll(requestsForSave);
+        log.debug("saveEmployees() - end: size = {}", results.size());
+        return results;
+    }
+
+    @PostMapping(value = USER_ENDPOINT + "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "This is endpoint to import employees from a file.", description = "Create request to add the employees of a CSV or NDJSON file, read line by line and created in chunks.", tags = {"Employee"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK. Counts, errors by line and rows/sec of the import."),
+            @ApiResponse(responseCode = "400", description = "Unknown format or CSV header")})
+    public EmployeeImportResultDto importEmployees(@RequestPart("file") MultipartFile file,
+                                                   @RequestParam(required = false) ImportFormat format) throws IOException {
+        var importFormat = format != null ? format : ImportFormat.fromFilename(file.getOriginalFilename());
+        log.debug("importEmployees() - start: file = {}, size = {}, format = {}", file.getOriginalFilename(), file.getSize(), importFormat);
+        // a multipart file is buffered on disk by the container, the stream reads it from there
+        try (InputStream input = file.getInputStream()) {
+            return employeeBatchService.importEmployees(input, importFormat);
+        }
+    }
+}
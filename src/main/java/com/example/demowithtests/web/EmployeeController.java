@@ -7,6 +7,10 @@ import com.example.demowithtests.dto.*;
 import com.example.demowithtests.service.EmployeeService;
 import com.example.demowithtests.service.EmployeeServiceEM;
 import com.example.demowithtests.util.mappers.EmployeeMapper;
+import com.example.demowithtests.util.pagination.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,14 +20,20 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -41,6 +51,11 @@ public class EmployeeController {
     private final EmployeeService employeeService;
     private final EmployeeServiceEM employeeServiceEM;
     private final EmployeeMapper employeeMapper;
+    private final ObjectMapper objectMapper;
+
+    private static final int STREAM_FLUSH_ROWS = 500;
+
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
 
     @PostMapping(USER_ENDPOINT)
     @ResponseStatus(HttpStatus.CREATED)
@@ -94,16 +109,52 @@ public class EmployeeController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.debug("streamAllUsers() - start");
+        StreamingResponseBody body = outputStream -> {
+            var writer = objectMapper.writerFor(EmployeeReadDto.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n");
+            try (SequenceWriter sequence = writer.writeValues(outputStream)) {
+                var rows = new int[1];
+                employeeService.streamAll(employee -> {
+                    try {
+                        sequence.write(employeeMapper.toEmployeeReadDto(employee));
+                        if (++rows[0] % STREAM_FLUSH_ROWS == 1) {
+                            sequence.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.debug("streamAllUsers() - end: rows = {}", rows[0]);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/users", params = "stream=true")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<StreamingResponseBody> streamAllUsersByParam() {
+        return streamAllUsers();
+    }
+
+    /**
+     * Keyset pagination over all employees ordered by id: pass the {@code nextCursor} of a page as {@code after}
+     * to get the following one. Deep pages cost as much as the first, there is no total count.
+     */
     @GetMapping("/users/pages")
     @ResponseStatus(HttpStatus.OK)
-    public Page<EmployeeReadDto> getPage(
-            @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "5") int size) {
-        log.debug("getPage() - start: page= {}, size = {}", page, size);
-        var paging = PageRequest.of(page, size);
-        var content = employeeService.getAllWithPagination(paging)
-                .map(employeeMapper::toEmployeeReadDto);
-        log.debug("getPage() - end: content = {}", content);
-        return content;
+    public EmployeeCursorPageDto getPage(@RequestParam(required = false) String after,
+                                         @RequestParam(defaultValue = "5") int size) {
+        log.debug("getPage() - start: after = {}, size = {}", after, size);
+        var dto = toCursorPage(employeeService.getAllAfter(after, size));
+        log.debug("getPage() - end: size = {}", dto.size());
+        return dto;
     }
 
     @GetMapping("/users/{id}")
@@ -124,13 +175,58 @@ public class EmployeeController {
     }
 
     @PutMapping("/users/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public EmployeeReadDto refreshEmployee(@PathVariable("id") Integer id, @RequestBody EmployeeSaveDto employee) {
+    public ResponseEntity<EmployeeReadDto> refreshEmployee(@PathVariable("id") Integer id,
+                                                           @RequestBody EmployeeSaveDto employee,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.debug("refreshEmployee() EmployeeController - start: id = {}", id);
         Employee entity = employeeMapper.toEmployee(employee);
-        EmployeeReadDto dto = employeeMapper.toEmployeeReadDto(employeeService.updateById(id, entity));
+        entity.setVersion(parseVersion(ifMatch));
+        Employee updated = employeeService.updateById(id, entity);
+        EmployeeReadDto dto = employeeMapper.toEmployeeReadDto(updated);
         log.debug("refreshEmployee() EmployeeController - end: name = {}", dto.name);
-        return dto;
+        return withVersion(updated, dto);
+    }
+
+    /**
+     * JSON merge patch of name, email, country and gender, e.g. {@code {"country": "Poland", "email": null}}.
+     * With {@code If-Match: "<version>"} the patch is only applied to that version, otherwise 409 is returned.
+     */
+    @PatchMapping(value = "/users/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partial update of an employee", description = "JSON merge patch, conditional with If-Match.", tags = {"Employee"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employee updated, ETag holds the new version"),
+            @ApiResponse(responseCode = "409", description = "The employee was changed since the version in If-Match")})
+    public ResponseEntity<EmployeeReadDto> patchEmployee(@PathVariable("id") Integer id,
+                                                         @RequestBody Map<String, Object> mergePatch,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("patchEmployee() EmployeeController - start: id = {}, fields = {}", id, mergePatch.keySet());
+        Employee updated = employeeService.patch(id, mergePatch, parseVersion(ifMatch));
+        log.debug("patchEmployee() EmployeeController - end: id = {}, version = {}", id, updated.getVersion());
+        return withVersion(updated, employeeMapper.toEmployeeReadDto(updated));
+    }
+
+    // accepts "5", "\"5\"" and W/"5"
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must hold an employee version, got " + ifMatch);
+        }
+    }
+
+    private static <T> ResponseEntity<T> withVersion(Employee employee, T body) {
+        var response = ResponseEntity.ok();
+        if (employee.getVersion() != null) {
+            response.eTag("\"" + employee.getVersion() + "\"");
+        }
+        return response.body(body);
     }
 
     @DeleteMapping("/users/{id}")
@@ -181,10 +277,40 @@ public class EmployeeController {
                                                @RequestParam(defaultValue = "0") int page,
                                                @RequestParam(defaultValue = "3") int size,
                                                @RequestParam(defaultValue = "") List<String> sortList,
-                                               @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
+                                               @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder,
+                                               @RequestParam(defaultValue = "false") boolean ignoreCase) {
         //Pageable paging = PageRequest.of(page, size);
         //Pageable paging = PageRequest.of(page, size, Sort.by("name").ascending());
-        return employeeService.findByCountryContaining(country, page, size, sortList, sortOrder.toString()).map(employeeMapper::toEmployeeReadDto);
+        Page<Employee> employees = ignoreCase
+                ? employeeService.findByCountryContainingIgnoreCase(country, page, size, sortList, sortOrder.toString())
+                : employeeService.findByCountryContaining(country, page, size, sortList, sortOrder.toString());
+        return employees.map(employeeMapper::toEmployeeReadDto);
+    }
+
+    @GetMapping("/users/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<EmployeeReadDto> search(@RequestParam String query,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        log.debug("search() EmployeeController - start: query = {}, limit = {}", query, limit);
+        return employeeMapper.toListEmployeeReadDto(employeeService.search(query, limit));
+    }
+
+    // keyset variant of /users/country for clients walking every page; the offset one stays for the
+    // case-insensitive search, served by the trigram index, and for the total count it returns
+    @GetMapping("/users/country/keyset")
+    @ResponseStatus(HttpStatus.OK)
+    public EmployeeCursorPageDto findByCountryKeyset(@RequestParam(required = false) String country,
+                                                     @RequestParam(required = false) String after,
+                                                     @RequestParam(defaultValue = "3") int size,
+                                                     @RequestParam(defaultValue = "") List<String> sortList,
+                                                     @RequestParam(defaultValue = "DESC") Sort.Direction sortOrder) {
+        return toCursorPage(employeeService.findByCountryContaining(country, after, size, sortList, sortOrder.toString()));
+    }
+
+    private EmployeeCursorPageDto toCursorPage(Window<Employee> window) {
+        var content = employeeMapper.toListEmployeeReadDto(window.getContent());
+        var nextCursor = window.hasNext() ? KeysetCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new EmployeeCursorPageDto(content, window.size(), nextCursor);
     }
 
     @GetMapping("/users/c")
@@ -205,6 +331,15 @@ public class EmployeeController {
         return employeeService.findEmails();
     }
 
+    @GetMapping("/users/stats")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Employee counts grouped by country, gender and deleted flag",
+            description = "Grouping is done by the database, e.g. /users/stats?groupBy=COUNTRY&groupBy=DELETED.", tags = {"Employee"})
+    public List<EmployeeStatsDto> getStats(
+            @RequestParam(defaultValue = "COUNTRY,GENDER,DELETED") Set<EmployeeStatsDimension> groupBy) {
+        return employeeService.getStats(groupBy);
+    }
+
     @GetMapping("/users/countryBy")
     @ResponseStatus(HttpStatus.OK)
     public List<EmployeeReadDto> getByCountry(@RequestParam(required = true) String country) {
@@ -216,16 +351,19 @@ public class EmployeeController {
     }
 
     @PatchMapping("/users/ukrainians")
-    @ResponseStatus(HttpStatus.OK)
-    public Set<String> sendEmailsAllUkrainian() {
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public MailJobDto sendEmailsAllUkrainian() {
         return employeeService.sendEmailsAllUkrainian();
     }
 
     @GetMapping("/users/names")
     @ResponseStatus(HttpStatus.OK)
-    public List<EmployeeReadDto> findByNameContaining(@RequestParam String employeeName) {
+    public List<EmployeeReadDto> findByNameContaining(@RequestParam String employeeName,
+                                                      @RequestParam(defaultValue = "false") boolean ignoreCase) {
         log.debug("findByNameContaining() EmployeeController - start: employeeName = {}", employeeName);
-        List<Employee> employees = employeeService.findByNameContaining(employeeName);
+        List<Employee> employees = ignoreCase
+                ? employeeService.findByNameContainingIgnoreCase(employeeName)
+                : employeeService.findByNameContaining(employeeName);
 
         log.debug("findByNameContaining() EmployeeController - end: employees = {}", employees.size());
         return employees.stream()
@@ -246,8 +384,8 @@ public class EmployeeController {
     @ResponseStatus(HttpStatus.OK)
     public EmployeeUpdateDto refreshEmployeeNameBody(@PathVariable("id") Integer id, @RequestBody String employeeName) {
         log.debug("refreshEmployeeName() EmployeeController - start: id = {}", id);
-        employeeService.updateEmployeeByName(employeeName, id);
-        Employee employee = employeeService.getById(id);
+        // the update returns the row, no second read
+        Employee employee = employeeService.patch(id, Map.of("name", employeeName), null);
         log.debug("refreshEmployeeName() EmployeeController - end: id = {}", id);
         EmployeeUpdateDto dto = employeeMapper.toEmployeeUpdateDto(employee);
 
@@ -274,20 +412,38 @@ public class EmployeeController {
 
     @PatchMapping("/soft-users-russian")
     @ResponseStatus(HttpStatus.OK)
-    public List<EmployeeDeleteDto> softRemoveEmployeeByCountry() {
-        List<Employee> employees = employeeService.filterByCountry("Russian Federation");
-        List<EmployeeDeleteDto> dto = employeeMapper.toListDeleteEmployeeDto(employees);
-        employeeService.softRemoveByCountry();
-        return dto;
+    public List<Integer> softRemoveEmployeeByCountry() {
+        return employeeService.softRemoveByCountry();
     }
 
     @PutMapping("/cansel-soft-users-russian")
     @ResponseStatus(HttpStatus.OK)
-    public List<EmployeeUpdateDto> activationEmployeeByCountry() {
-        List<Employee> employees = employeeService.filterByCountry("Russian Federation");
-        List<EmployeeUpdateDto> dto = employeeMapper.toListEmployeeUpdateDto(employees);
-        employeeService.cancelSoftDeleteByCountry();
-        return dto;
+    public List<Integer> activationEmployeeByCountry() {
+        return employeeService.cancelSoftDeleteByCountry();
+    }
+
+    /**
+     * Soft deletes every employee matching the criteria (country, gender, ids, name),
+     * e.g. {@code {"country": "Belarus", "gender": "M"}}.
+     *
+     * @return ids of the deleted employees
+     */
+    @PatchMapping("/users/soft-delete")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Integer> softRemoveBy(@RequestBody EmployeeCriteriaDto criteria) {
+        log.debug("softRemoveBy() EmployeeController - start: criteria = {}", criteria);
+        List<Integer> ids = employeeService.softRemoveBy(criteria);
+        log.debug("softRemoveBy() EmployeeController - end: deleted = {}", ids.size());
+        return ids;
+    }
+
+    @PatchMapping("/users/restore")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Integer> restoreBy(@RequestBody EmployeeCriteriaDto criteria) {
+        log.debug("restoreBy() EmployeeController - start: criteria = {}", criteria);
+        List<Integer> ids = employeeService.restoreBy(criteria);
+        log.debug("restoreBy() EmployeeController - end: restored = {}", ids.size());
+        return ids;
     }
 
     @GetMapping("/users-Oleh/UA")
@@ -0,0 +1,125 @@
+package com.example.demowithtests.web;
+
+import com.example.demowithtests.dto.ExportJobDto;
+import com.example.demowithtests.service.export.ExportFormat;
+import com.example.demowithtests.service.export.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static com.example.demowithtests.util.Endpoints.API_BASE;
+import static com.example.demowithtests.util.Endpoints.EXPORT_ENDPOINT;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping(API_BASE + EXPORT_ENDPOINT)
+@Slf4j
+@Tag(name = "Export", description = "Employee export API")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @PostMapping
+    @Operation(summary = "This is endpoint to start an export of all employees.", description = "Create request to write employees with their document and addresses into a gzip compressed file in the background.", tags = {"Export"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "ACCEPTED. The job is queued, poll the Location until it is DONE."),
+            @ApiResponse(responseCode = "503", description = "Too many export jobs are queued")})
+    public ResponseEntity<ExportJobDto> startExport(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                    @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        log.debug("startExport() - start: format = {}, includeDeleted = {}", format, includeDeleted);
+        ExportJobDto job = exportService.start(format, includeDeleted);
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQuery(null)
+                .path("/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<ExportJobDto> getExports() {
+        return exportService.getJobs();
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public ExportJobDto getExport(@PathVariable String id) {
+        return exportService.getJob(id);
+    }
+
+    /**
+     * Sends the file with {@link FileChannel#transferTo}, the file is never read into the heap as a whole.
+     * A single {@code Range} is answered with 206, several ranges are ignored and the whole file is sent.
+     */
+    @GetMapping("/{id}/file")
+    @Operation(summary = "This is endpoint to download a finished export.", description = "Download the gzip compressed file, a single byte range can be requested to resume.", tags = {"Export"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "206", description = "PARTIAL CONTENT. The requested range."),
+            @ApiResponse(responseCode = "409", description = "The job is not done"),
+            @ApiResponse(responseCode = "416", description = "The range starts after the end of the file")})
+    public void downloadExport(@PathVariable String id,
+                               @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                               HttpServletResponse response) throws IOException {
+        ExportJobDto job = exportService.getJob(id);
+        Path file = exportService.getFile(id);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            long end = size - 1;
+            List<HttpRange> ranges = range == null ? List.of() : HttpRange.parseRanges(range);
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                start = requested.getRangeStart(size);
+                if (start >= size) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                end = requested.getRangeEnd(size);
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+            response.setContentType("application/gzip");
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("employees-" + id + "." + job.format().getExtension() + ".gz")
+                    .build()
+                    .toString());
+            response.setContentLengthLong(end - start + 1);
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end - position + 1, out);
+            }
+            log.debug("downloadExport() - end: id = {}, bytes {}-{}/{}", id, start, end, size);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteExport(@PathVariable String id) {
+        exportService.delete(id);
+    }
+}
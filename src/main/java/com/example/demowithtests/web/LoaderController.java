@@ -1,12 +1,15 @@
 package com.example.demowithtests.web;
 
 import com.example.demowithtests.service.fillDataBase.LoaderService;
+import com.example.demowithtests.service.fillDataBase.LoaderServiceBean;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,4 +30,20 @@ public class LoaderController {
         log.info("fillDataBase() LoaderController - end: count = {}", count);
         return count;
     }
+
+    /**
+     * Generates {@code count} employees in bulk (PostgreSQL only), at most
+     * {@link LoaderServiceBean#MAX_COUNT} per request.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("/users/fill")
+    public String generateData(@RequestParam long count,
+                               @RequestParam(defaultValue = "1") long seed,
+                               @RequestParam(defaultValue = "4") int parallelism) {
+        log.info("generateData() LoaderController - start: count = {}, seed = {}, parallelism = {}", count, seed, parallelism);
+        loaderService.generateData(count, seed, parallelism);
+        String amount = "Amount clients: " + loaderService.count();
+        log.info("generateData() LoaderController - end: count = {}", amount);
+        return amount;
+    }
 }
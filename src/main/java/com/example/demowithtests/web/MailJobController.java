@@ -0,0 +1,63 @@
+package com.example.demowithtests.web;
+
+import com.example.demowithtests.domain.MailStatus;
+import com.example.demowithtests.dto.MailJobDto;
+import com.example.demowithtests.dto.MailJobRequestDto;
+import com.example.demowithtests.dto.MailRecipientDto;
+import com.example.demowithtests.service.mail.MailJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+import static com.example.demowithtests.util.Endpoints.API_BASE;
+import static com.example.demowithtests.util.Endpoints.MAIL_JOB_ENDPOINT;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping(API_BASE + MAIL_JOB_ENDPOINT)
+@Slf4j
+@Tag(name = "Mail", description = "Mail to employees API")
+public class MailJobController {
+
+    private final MailJobService mailJobService;
+
+    @PostMapping
+    @Operation(summary = "This is endpoint to mail all employees matching a filter.", description = "Create request to queue a mail to every active employee matching the given conditions, absent ones are ignored. The mails are sent in the background.", tags = {"Mail"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "ACCEPTED. The recipients are queued, poll the Location until it is finished."),
+            @ApiResponse(responseCode = "400", description = "Subject or body is missing")})
+    public ResponseEntity<MailJobDto> startMailJob(@RequestBody @Valid MailJobRequestDto request) {
+        log.debug("startMailJob() - start: request = {}", request);
+        MailJobDto job = mailJobService.start(request);
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public MailJobDto getMailJob(@PathVariable String id) {
+        return mailJobService.getJob(id);
+    }
+
+    @GetMapping("/{id}/recipients")
+    @ResponseStatus(HttpStatus.OK)
+    public List<MailRecipientDto> getRecipients(@PathVariable String id,
+                                                @RequestParam(required = false) MailStatus status,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "100") int size) {
+        return mailJobService.getRecipients(id, status, page, size);
+    }
+}
@@ -0,0 +1,6 @@
+-- Supporting indexes for keyset pagination: every seek is on (sort column, id).
+-- The country keyset filters with LIKE '%x%', which a (country, id) btree cannot serve, the trigram index of
+-- V13 does. Ordering by country is covered by idx_users_country_gender_deleted of V14
+create index if not exists idx_users_name_id on users (name, id);
+
+create index if not exists idx_users_email_id on users (email, id);
@@ -0,0 +1,31 @@
+-- Hibernate generates ids from these sequences with the pooled-lo optimizer:
+-- one nextval() reserves a block of 50 ids, which lets inserts be sent as JDBC batches
+create sequence if not exists users_seq increment by 50;
+
+create sequence if not exists addresses_seq increment by 50;
+
+create sequence if not exists documents_seq increment by 50;
+
+create sequence if not exists documents_history_seq increment by 50;
+
+select setval('users_seq', coalesce((select max(id) from users), 0) + 1, false);
+
+select setval('addresses_seq', coalesce((select max(id) from addresses), 0) + 1, false);
+
+-- documents tables are created by Hibernate, so on a fresh database they do not exist yet
+do $$
+begin
+    if to_regclass('documents') is not null then
+        perform setval('documents_seq', coalesce((select max(id) from documents), 0) + 1, false);
+    end if;
+    if to_regclass('documents_history') is not null then
+        perform setval('documents_history_seq', coalesce((select max(id) from documents_history), 0) + 1, false);
+    end if;
+end
+$$;
+
+-- native inserts (EmployeeRepository.saveEmployee) draw from the same sequences.
+-- With pooled-lo a value returned by nextval() is never inside a block Hibernate uses
+alter table users alter column id set default nextval('users_seq');
+
+alter table addresses alter column id set default nextval('addresses_seq');
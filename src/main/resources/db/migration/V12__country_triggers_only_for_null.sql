@@ -0,0 +1,17 @@
+-- Both triggers only act on rows without a country. With a WHEN condition PostgreSQL skips
+-- the plpgsql call for every other row, which matters for bulk COPY of generated data
+drop trigger if exists trigger_check_and_assign_country on users;
+
+create trigger trigger_check_and_assign_country
+    before insert or update on users
+    for each row
+    when (NEW.country is null)
+execute function check_and_assign_country();
+
+drop trigger if exists trigger_user_country_null on users;
+
+create trigger trigger_user_country_null
+    before insert or update on users
+    for each row
+    when (NEW.country is null)
+execute function check_employees_country();
@@ -0,0 +1,9 @@
+-- Trigram GIN indexes serve LIKE/ILIKE '%text%' and similarity ordering,
+-- which a btree index cannot do for a pattern with a leading wildcard
+create extension if not exists pg_trgm;
+
+create index if not exists idx_users_name_trgm on users using gin (name gin_trgm_ops);
+
+create index if not exists idx_users_email_trgm on users using gin (email gin_trgm_ops);
+
+create index if not exists idx_users_country_trgm on users using gin (country gin_trgm_ops);
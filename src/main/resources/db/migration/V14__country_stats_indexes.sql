@@ -0,0 +1,5 @@
+-- Prefix LIKE on country needs text_pattern_ops unless the database collation is C
+create index if not exists idx_users_country_pattern on users (country text_pattern_ops);
+
+-- Covers distinct countries and the country/gender/deleted statistics with an index-only scan
+create index if not exists idx_users_country_gender_deleted on users (country, gender, is_deleted);
@@ -0,0 +1,13 @@
+-- Soft deleted rows are hidden by the application with "is_deleted = false", which a null flag never matches
+update users set is_deleted = false where is_deleted is null;
+
+alter table users alter column is_deleted set default false;
+
+alter table users alter column is_deleted set not null;
+
+-- Partial indexes over the active rows only, used by every filtered keyset seek.
+-- The full indexes of V10 stay for the reads that include deleted employees. A lookup by id uses the primary key,
+-- and substring search the trigram indexes of V13, which are not duplicated for the active rows
+create index if not exists idx_users_active_name_id on users (name, id) where is_deleted = false;
+
+create index if not exists idx_users_active_email_id on users (email, id) where is_deleted = false;
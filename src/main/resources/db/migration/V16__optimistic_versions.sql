@@ -0,0 +1,12 @@
+-- Optimistic locking: every write increments the version, conditional writes compare it.
+-- The default keeps COPY and other native inserts valid
+alter table users add column if not exists version bigint not null default 0;
+
+-- documents is created by Hibernate, so on a fresh database it does not exist yet
+do $$
+begin
+    if to_regclass('documents') is not null then
+        alter table documents add column if not exists version bigint not null default 0;
+    end if;
+end
+$$;
@@ -0,0 +1,29 @@
+-- Mail sent to the employees matching a filter: one row per recipient, delivered by MailDispatcher
+create table if not exists mail_jobs
+(
+    id         varchar(36) primary key,
+    subject    varchar(255)             not null,
+    body       varchar(10000)           not null,
+    created_at timestamp with time zone not null,
+    recipients integer                  not null default 0
+);
+
+create table if not exists mail_outbox
+(
+    id              bigint generated by default as identity primary key,
+    job_id          varchar(36)              not null references mail_jobs (id) on delete cascade,
+    employee_id     integer,
+    recipient       varchar(255)             not null,
+    name            varchar(255),
+    status          varchar(16)              not null,
+    attempts        integer                  not null default 0,
+    next_attempt_at timestamp with time zone not null,
+    last_error      varchar(1000),
+    sent_at         timestamp with time zone
+);
+
+-- the dispatcher polls for due rows, only the ones still to send are indexed
+create index if not exists mail_outbox_due_idx on mail_outbox (next_attempt_at)
+    where status in ('PENDING', 'SENDING');
+
+create index if not exists mail_outbox_job_idx on mail_outbox (job_id, status);
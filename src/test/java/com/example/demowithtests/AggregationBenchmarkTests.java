@@ -0,0 +1,120 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.repository.EmployeeStatsAttribute;
+import com.example.demowithtests.util.LikePatterns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Country/email reads computed by the database against the former {@code findAll()} plus Java stream versions.
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}, the table size with {@code -Dbenchmark.rows}.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Tag("benchmark")
+@DisplayName("Aggregation benchmark")
+public class AggregationBenchmarkTests {
+
+    private static final int ID_OFFSET = 10_000_000;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        // H2 generates the rows itself, going through JPA would dominate the run
+        jdbcTemplate.update("INSERT INTO users (id, name, email, country, gender, is_deleted) " +
+                "SELECT X + ?, 'Employee' || X, " +
+                "'employee' || X || CASE WHEN MOD(X, 3) = 0 THEN '@mail.com' ELSE '@mail.ua' END, " +
+                "CASE MOD(X, 5) WHEN 0 THEN 'Ukraine' WHEN 1 THEN 'United Kingdom' WHEN 2 THEN 'Poland' " +
+                "WHEN 3 THEN 'Uruguay' ELSE 'Italy' END, " +
+                "CASE WHEN MOD(X, 2) = 0 THEN 'M' ELSE 'F' END, MOD(X, 10) = 0 " +
+                "FROM SYSTEM_RANGE(1, ?)", ID_OFFSET, rows);
+        jdbcTemplate.update("INSERT INTO addresses (id, address_has_active, country, city, street, employee_id) " +
+                "SELECT X + ?, TRUE, 'UA', 'Kyiv', 'Street ' || X, X + ? FROM SYSTEM_RANGE(1, ?)",
+                ID_OFFSET, ID_OFFSET, rows);
+    }
+
+    @Test
+    @DisplayName("Projections and GROUP BY against findAll()")
+    public void aggregationsTest() {
+        System.out.printf("%,d employees%n", rows);
+
+        var countries = compare("countries",
+                () -> employeeRepository.findAll().stream().map(Employee::getCountry).distinct().sorted().toList(),
+                employeeRepository::findDistinctCountries);
+        assertThat(countries).containsExactly("Italy", "Poland", "Ukraine", "United Kingdom", "Uruguay");
+
+        var startingWithU = compare("countries starting with U",
+                () -> employeeRepository.findAll().stream()
+                        .map(Employee::getCountry)
+                        .filter(c -> c.startsWith("U"))
+                        .distinct()
+                        .sorted(Comparator.naturalOrder())
+                        .toList(),
+                () -> employeeRepository.findDistinctCountriesLike(LikePatterns.startsWith("U")));
+        assertThat(startingWithU).hasSize(3);
+
+        var email = compare("first .com email",
+                () -> employeeRepository.findAll().stream()
+                        .map(Employee::getEmail)
+                        .filter(s -> s.endsWith(".com"))
+                        .findFirst(),
+                () -> employeeRepository.findFirstEmailLike(LikePatterns.endsWith(".com")));
+        assertThat(email).hasValueSatisfying(value -> assertThat(value).endsWith(".com"));
+
+        var stats = compare("count by country, gender, deleted",
+                () -> employeeRepository.findAll().stream()
+                        .collect(Collectors.groupingBy(e -> List.of(e.getCountry(), e.getGender(), e.getIsDeleted()),
+                                Collectors.counting())),
+                () -> employeeRepository.countGroupedBy(EnumSet.allOf(EmployeeStatsAttribute.class)));
+        assertThat(stats).isNotEmpty();
+    }
+
+    /**
+     * Runs both versions once to warm up and once measured, with an empty persistence context each time.
+     *
+     * @return the result of the database version
+     */
+    private <T> T compare(String name, Supplier<?> inMemory, Supplier<T> inDatabase) {
+        measure(inMemory);
+        long inMemoryMillis = measure(inMemory);
+        measure(inDatabase);
+        long inDatabaseMillis = measure(inDatabase);
+        System.out.printf("%-35s findAll(): %6d ms, query: %6d ms%n", name, inMemoryMillis, inDatabaseMillis);
+
+        entityManager.clear();
+        return inDatabase.get();
+    }
+
+    private long measure(Supplier<?> action) {
+        entityManager.clear();
+        long start = System.nanoTime();
+        assertThat(action.get()).isNotNull();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.util.blocklist.DomainSuffixTrie;
+import com.example.demowithtests.util.blocklist.EmailDomainBlocklist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringConstraintValidatorFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Blocked Email Domains Validator Tests")
+public class BlockedEmailDomainsValidatorTests {
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmailDomainBlocklist blocklist;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("blocked-domains.txt");
+        meterRegistry = new SimpleMeterRegistry();
+        blocklist = new EmailDomainBlocklist(file, Duration.ofHours(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocklist.close();
+    }
+
+    @Test
+    @DisplayName("Domains block themselves and their subdomains ignoring case test")
+    public void trieTest() {
+        var trie = DomainSuffixTrie.of(List.of("mail.ru", ".su", "*.Mailinator.com", "@yopmail.com.", "", "  # comment",
+                "trashmail.de # since 2023", "mail.ru"));
+
+        assertThat(trie.size()).isEqualTo(5);
+        assertThat(trie.matches("olga@mail.ru")).isTrue();
+        assertThat(trie.matches("olga@inbox.MAIL.RU")).isTrue();
+        assertThat(trie.matches("olga@gmail.ru")).isFalse();
+        assertThat(trie.matches("olga@mail.ru.com")).isFalse();
+        assertThat(trie.matches("ivan@pochta.su")).isTrue();
+        assertThat(trie.matches("ivan@su.ua")).isFalse();
+        assertThat(trie.matches("x@mailinator.com")).isTrue();
+        assertThat(trie.matches("x@yopmail.com")).isTrue();
+        assertThat(trie.matches("x@trashmail.de")).isTrue();
+        assertThat(trie.matches("x@mail.com")).isFalse();
+        assertThat(trie.matches("mailinator.com")).isTrue();
+        assertThat(DomainSuffixTrie.empty().matches("x@mail.ru")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Domains of the annotation test")
+    public void annotationTest() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "olha@mail.RU")).isNotEmpty();
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "olha@mail.com1")).isNotEmpty();
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "olha@ukr.net")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Blocklist file is reloaded when it changes test")
+    public void reloadTest() throws Exception {
+        assertThat(blocklist.isBlocked("x@disposable.io")).isFalse();
+
+        write("disposable.io\ntempmail.org\n");
+        blocklist.reloadIfChanged();
+        assertThat(blocklist.isBlocked("x@disposable.io")).isTrue();
+        assertThat(blocklist.size()).isEqualTo(2);
+
+        write("tempmail.org\n");
+        blocklist.reloadIfChanged();
+        assertThat(blocklist.isBlocked("x@disposable.io")).isFalse();
+
+        // a missing file keeps the list
+        Files.delete(file);
+        blocklist.reloadIfChanged();
+        assertThat(blocklist.isBlocked("x@mx.tempmail.org")).isTrue();
+
+        assertThat(meterRegistry.get("email.blocklist.domains").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.blocklist.reloads").tag("outcome", "success").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("email.blocklist.lookup").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Validator created by Spring checks the blocklist test")
+    public void springValidatorTest() throws Exception {
+        write("disposable.io\n");
+        blocklist.reloadIfChanged();
+        try (var context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(EmailDomainBlocklist.class, () -> blocklist);
+            context.refresh();
+            var validator = new LocalValidatorFactoryBean();
+            validator.setConstraintValidatorFactory(new SpringConstraintValidatorFactory(context.getAutowireCapableBeanFactory()));
+            validator.afterPropertiesSet();
+
+            assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "x@Disposable.IO")).isNotEmpty();
+            assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "x@mail.ru")).isNotEmpty();
+            assertThat(validator.validateValue(EmployeeSaveDto.class, "email", "x@ukr.net")).isEmpty();
+            validator.close();
+        }
+    }
+
+    // each write gets a later modification time, file systems may keep only seconds
+    private void write(String content) throws Exception {
+        Instant previous = Files.exists(file) ? Files.getLastModifiedTime(file).toInstant() : Instant.EPOCH;
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(previous.plusSeconds(10).isAfter(Instant.now())
+                ? previous.plusSeconds(10) : Instant.now()));
+    }
+}
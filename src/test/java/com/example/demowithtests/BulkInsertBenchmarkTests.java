@@ -0,0 +1,68 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.fillDataBase.LoaderServiceBean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec of {@link EmployeeRepository#saveAll} for the data set produced by the loader.
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Tag("benchmark")
+@DisplayName("Bulk insert benchmark")
+public class BulkInsertBenchmarkTests {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("saveAll() throughput")
+    public void saveAllThroughputTest() {
+        var loader = new LoaderServiceBean(employeeRepository, dataSource);
+        int rounds = Integer.getInteger("benchmark.rounds", 20);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            save(loader.createListEmployees());
+        }
+
+        long rows = 0;
+        long elapsed = 0;
+        for (int i = 0; i < rounds; i++) {
+            List<Employee> employees = loader.createListEmployees();
+            long start = System.nanoTime();
+            save(employees);
+            elapsed += System.nanoTime() - start;
+            rows += employees.size() + employees.stream().mapToInt(e -> e.getAddresses().size()).sum();
+        }
+
+        double rowsPerSecond = rows / (elapsed / 1_000_000_000.0);
+        System.out.printf("saveAll(): %d rows in %d ms, %.0f rows/sec%n", rows, elapsed / 1_000_000, rowsPerSecond);
+        assertThat(rowsPerSecond).isPositive();
+    }
+
+    private void save(List<Employee> employees) {
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Address;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements of the main employee endpoints, mapping to the response included,
+ * with an empty second-level cache.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@Import(SqlRecorderConfig.class)
+@WithMockUser(roles = {"USER", "ADMIN"})
+@DisplayName("Controller Query Budget Tests")
+public class ControllerQueryBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Integer> ids;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            employees.add(Employee.builder()
+                    .name("Endpoint " + i)
+                    .country(i % 2 == 0 ? "Ukraine" : "Italy")
+                    .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                    .addresses(new HashSet<>(Set.of(
+                            Address.builder().country("UA").city("Kyiv").addressHasActive(true).build(),
+                            Address.builder().country("PL").city("Krakow").addressHasActive(false).build())))
+                    .build());
+        }
+        ids = employeeRepository.saveAll(employees).stream().map(Employee::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @DisplayName("Reads test")
+    public void readsTest() throws Exception {
+        assertBudget(1, get("/api/users"));
+        assertBudget(1, get("/api/users/{id}", ids.get(0)));
+        // rows and addresses, keyset pages have no count
+        assertBudget(2, get("/api/users/pages").param("size", "2"));
+        assertBudget(2, get("/api/users/country/keyset").param("country", "Ukraine").param("size", "2"));
+        // the count only when the page is full
+        assertBudget(2, get("/api/users/country").param("country", "Ukraine").param("size", "10"));
+        assertBudget(1, get("/api/users/stats"));
+    }
+
+    @Test
+    @DisplayName("Read by id from the second-level cache test")
+    public void cachedReadTest() throws Exception {
+        assertBudget(1, get("/api/users/{id}", ids.get(0)));
+
+        var recorded = SqlRecorder.record(() -> mockMvc.perform(get("/api/users/{id}", ids.get(0)))
+                .andExpect(status().isOk()));
+
+        assertThat(recorded.count()).as("statements%n%s", recorded).isZero();
+    }
+
+    @Test
+    @DisplayName("Writes test")
+    public void writesTest() throws Exception {
+        // the update returns the changed row
+        assertBudget(1, patch("/api/users/{id}", ids.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"country\": \"Poland\"}"));
+        assertBudget(1, delete("/api/users/{id}", ids.get(2)));
+    }
+
+    private void assertBudget(int statements, RequestBuilder request) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        var recorded = SqlRecorder.record(() -> mockMvc.perform(request).andExpect(status().is2xxSuccessful()));
+
+        assertThat(recorded.repeatedSelects()).as("N+1 in%n%s", recorded).isEmpty();
+        assertThat(recorded.count()).as("statements%n%s", recorded).isEqualTo(statements);
+    }
+}
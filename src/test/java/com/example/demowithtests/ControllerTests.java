@@ -6,6 +6,7 @@ import com.example.demowithtests.dto.EmployeeReadDto;
 import com.example.demowithtests.service.EmployeeService;
 import com.example.demowithtests.service.EmployeeServiceEM;
 import com.example.demowithtests.util.mappers.EmployeeMapper;
+import com.example.demowithtests.util.pagination.KeysetCursor;
 import com.example.demowithtests.web.EmployeeController;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,10 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -32,6 +31,8 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
@@ -39,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -234,37 +236,62 @@ public class ControllerTests {
 
         var employee = Employee.builder().id(1).name("John").country("US").build();
         var employeeTwo = Employee.builder().id(2).name("Jane").country("UK").build();
-        var employeeThree = Employee.builder().id(3).name("Bob").country("US").build();
 
-        List<Employee> list = Arrays.asList(employee, employeeTwo, employeeThree);
-        Page<Employee> employeesPage = new PageImpl<>(list);
-        Pageable pageable = PageRequest.of(0, 5);
+        List<Employee> list = Arrays.asList(employee, employeeTwo);
+        Window<Employee> window = Window.from(list,
+                index -> ScrollPosition.forward(Map.of("id", list.get(index).getId())), true);
+        String after = KeysetCursor.encode(ScrollPosition.forward(Map.of("id", 0)));
 
-        EmployeeReadDto dto = new EmployeeReadDto();
-        EmployeeReadDto dtoTwo = new EmployeeReadDto();
-        EmployeeReadDto dtoThree = new EmployeeReadDto();
+        when(service.getAllAfter(after, 2)).thenReturn(window);
+        when(employeeMapper.toListEmployeeReadDto(list)).thenReturn(List.of(new EmployeeReadDto(), new EmployeeReadDto()));
 
-        when(service.getAllWithPagination(eq(pageable))).thenReturn(employeesPage);
+        mockMvc.perform(get("/api/users/pages")
+                        .param("after", after)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.size", is(2)))
+                .andExpect(jsonPath("$.nextCursor", is(KeysetCursor.encode(ScrollPosition.forward(Map.of("id", 2))))));
+
+        verify(service).getAllAfter(after, 2);
+    }
+
+    @Test
+    @DisplayName("GET API -> /api/users as NDJSON stream")
+    @WithMockUser(roles = "USER")
+    public void streamUsersAsNdjsonTest() throws Exception {
+        // Arrange
+        var employee = Employee.builder().id(1).name("John").build();
+        var dto = new EmployeeReadDto();
+        dto.id = 1;
+        dto.name = "John";
+
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            consumer.accept(employee);
+            return null;
+        }).when(service).streamAll(any());
         when(employeeMapper.toEmployeeReadDto(employee)).thenReturn(dto);
-        when(employeeMapper.toEmployeeReadDto(employeeTwo)).thenReturn(dtoTwo);
-        when(employeeMapper.toEmployeeReadDto(employeeThree)).thenReturn(dtoThree);
 
-        MvcResult result = mockMvc.perform(get("/api/users/pages")
-                        .param("page", "0")
-                        .param("size", "5"))
-                .andExpect(status().isOk())
+        // Act
+        MvcResult asyncResult = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
                 .andReturn();
 
-        verify(service).getAllWithPagination(eq(pageable));
-        verify(employeeMapper, times(1)).toEmployeeReadDto(employee);
-        verify(employeeMapper, times(1)).toEmployeeReadDto(employeeTwo);
-        verify(employeeMapper, times(1)).toEmployeeReadDto(employeeThree);
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        String[] lines = body.trim().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, mapper.readTree(lines[0]).get("id").asInt());
+        assertEquals("John", mapper.readTree(lines[1]).get("name").asText());
 
-        String contentType = result.getResponse().getContentType();
-        assertNotNull(contentType);
-        assertTrue(contentType.contains(MediaType.APPLICATION_JSON_VALUE));
-        String responseContent = result.getResponse().getContentAsString();
-        assertNotNull(responseContent);
+        verify(service).streamAll(any());
+        verify(service, never()).getAll();
     }
 
     @Test
@@ -0,0 +1,103 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.util.annotations.entity.ActivateCustomAnnotations;
+import com.example.demowithtests.util.annotations.entity.CustomEntityValidationAspect;
+import com.example.demowithtests.util.annotations.entity.Name;
+import com.example.demowithtests.util.annotations.entity.ToLowerCase;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.runtime.reflect.Factory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Entity Normalization Tests")
+public class EntityNormalizationTests {
+
+    private final CustomEntityValidationAspect aspect = new CustomEntityValidationAspect();
+
+    @Test
+    @DisplayName("Name and email of an employee test")
+    public void employeeTest() throws Throwable {
+        var employee = employee("  oLEH ", "Oleh@Mail.COM");
+
+        aspect.makeValid(joinPoint("create", Employee.class, employee));
+
+        assertThat(employee.getName()).isEqualTo("Oleh");
+        assertThat(employee.getEmail()).isEqualTo("oleh@mail.com");
+    }
+
+    @Test
+    @DisplayName("Only the activated annotations are applied test")
+    public void activatedAnnotationsTest() throws Throwable {
+        var employee = employee("oLEH", "Oleh@Mail.COM");
+
+        aspect.makeValid(joinPoint("lowerCaseOnly", Employee.class, employee));
+
+        assertThat(employee.getName()).isEqualTo("oLEH");
+        assertThat(employee.getEmail()).isEqualTo("oleh@mail.com");
+    }
+
+    @Test
+    @DisplayName("Lists and cascaded associations test")
+    public void nestedTest() throws Throwable {
+        var member = employee("mario", "Mario@Mail.IT");
+        var lead = employee("olena", "Olena@Mail.UA");
+        var team = new Team(List.of(member), lead);
+        var other = employee("iryna", null);
+
+        aspect.makeValid(joinPoint("createAll", List.class, List.of(team, other, "not an entity")));
+
+        assertThat(member.getName()).isEqualTo("Mario");
+        assertThat(member.getEmail()).isEqualTo("mario@mail.it");
+        assertThat(other.getName()).isEqualTo("Iryna");
+        // not cascaded, saved on its own
+        assertThat(lead.getName()).isEqualTo("olena");
+    }
+
+    private static Employee employee(String name, String email) {
+        return Employee.builder().name(name).email(email).build();
+    }
+
+    private JoinPoint joinPoint(String method, Class<?> parameterType, Object arg) {
+        var factory = new Factory(getClass().getSimpleName() + ".java", getClass());
+        var signature = factory.makeMethodSig(Modifier.PUBLIC, method, getClass(),
+                new Class[]{parameterType}, new String[]{"arg"}, new Class[0], void.class);
+        return Factory.makeJP(factory.makeSJP(JoinPoint.METHOD_EXECUTION, signature, 0), this, this, arg);
+    }
+
+    // signatures the join points stand for
+
+    @ActivateCustomAnnotations({Name.class, ToLowerCase.class})
+    public void create(Employee employee) {
+    }
+
+    @ActivateCustomAnnotations(ToLowerCase.class)
+    public void lowerCaseOnly(Employee employee) {
+    }
+
+    @ActivateCustomAnnotations({Name.class, ToLowerCase.class})
+    public void createAll(List<?> entities) {
+    }
+
+    static class Team {
+
+        @OneToMany(cascade = CascadeType.ALL)
+        private final List<Employee> members;
+
+        @ManyToOne
+        private final Employee lead;
+
+        Team(List<Employee> members, Employee lead) {
+            this.members = members;
+            this.lead = lead;
+        }
+    }
+}
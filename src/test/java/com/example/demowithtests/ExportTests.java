@@ -0,0 +1,192 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Address;
+import com.example.demowithtests.domain.Document;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.ExportJobDto;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.export.ExportFormat;
+import com.example.demowithtests.service.export.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "app.export.directory=target/test-exports")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@DisplayName("Export Tests")
+public class ExportTests {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Employee withAddresses;
+
+    private Employee deleted;
+
+    @BeforeEach
+    void setUp() {
+        withAddresses = employeeRepository.save(Employee.builder()
+                .name("Export, \"Quoted\"")
+                .email("export@mail.com")
+                .country("Ukraine")
+                .gender(Gender.F)
+                .document(Document.builder().number("EXPORT-1").build())
+                .addresses(Set.of(
+                        Address.builder().country("UA").city("Kyiv").street("Khreshchatyk").addressHasActive(true).build(),
+                        Address.builder().country("UA").city("Lviv").street("Rynok").addressHasActive(false).build()))
+                .build());
+        deleted = employeeRepository.save(Employee.builder()
+                .name("Export deleted")
+                .country("Ukraine")
+                .gender(Gender.M)
+                .isDeleted(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllById(List.of(withAddresses.getId(), deleted.getId()));
+    }
+
+    @Test
+    @DisplayName("CSV export test")
+    public void csvExportTest() throws Exception {
+        ExportJobDto job = awaitDone(exportService.start(ExportFormat.CSV, false));
+
+        List<String> lines = gunzip(exportService.getFile(job.id())).lines().toList();
+        assertThat(lines.get(0)).startsWith("id,name,email,country,gender,is_deleted,document_number");
+        assertThat(lines)
+                .filteredOn(line -> line.startsWith(withAddresses.getId() + ","))
+                .hasSize(2)
+                .allMatch(line -> line.contains(",\"Export, \"\"Quoted\"\"\",export@mail.com,Ukraine,F,false,EXPORT-1,"))
+                .anyMatch(line -> line.endsWith(",true,UA,Kyiv,Khreshchatyk"));
+        assertThat(lines).noneMatch(line -> line.startsWith(deleted.getId() + ","));
+        assertThat(job.employees()).isEqualTo(lines.stream().skip(1).map(line -> line.split(",", 2)[0]).distinct().count());
+    }
+
+    @Test
+    @DisplayName("NDJSON export with deleted employees test")
+    public void ndjsonExportTest() throws Exception {
+        ExportJobDto job = awaitDone(exportService.start(ExportFormat.NDJSON, true));
+
+        List<JsonNode> employees = gunzip(exportService.getFile(job.id())).lines()
+                .map(this::readTree)
+                .toList();
+        assertThat(employees).hasSize((int) job.employees());
+
+        JsonNode exported = employees.stream()
+                .filter(node -> node.get("id").asInt() == withAddresses.getId())
+                .findFirst()
+                .orElseThrow();
+        assertThat(exported.get("name").asText()).isEqualTo("Export, \"Quoted\"");
+        assertThat(exported.get("document").get("number").asText()).isEqualTo("EXPORT-1");
+        assertThat(exported.get("addresses")).hasSize(2);
+
+        assertThat(employees)
+                .filteredOn(node -> node.get("id").asInt() == deleted.getId())
+                .singleElement()
+                .satisfies(node -> {
+                    assertThat(node.get("isDeleted").asBoolean()).isTrue();
+                    assertThat(node.get("document").isNull()).isTrue();
+                    assertThat(node.get("addresses")).isEmpty();
+                });
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Download with range test")
+    public void downloadTest() throws Exception {
+        ExportJobDto job = awaitDone(exportService.start(ExportFormat.CSV, false));
+        byte[] file = Files.readAllBytes(exportService.getFile(job.id()));
+        String url = "/api/exports/" + job.id() + "/file";
+
+        byte[] whole = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, file.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(whole).isEqualTo(file);
+
+        byte[] tail = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-" + (file.length - 1) + "/" + file.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(tail).isEqualTo(Arrays.copyOfRange(file, 10, file.length));
+
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + file.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Exports need the ADMIN role test")
+    public void exportsNeedAdminTest() throws Exception {
+        mockMvc.perform(post("/api/exports")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/exports")).andExpect(status().isForbidden());
+    }
+
+    private ExportJobDto awaitDone(ExportJobDto job) throws InterruptedException {
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(100);
+            job = exportService.getJob(job.id());
+        }
+        assertThat(job.status()).isEqualTo(ExportJobDto.Status.DONE);
+        return job;
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        return gunzip(Files.readAllBytes(file));
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Document;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.EmployeeBatchResultDto;
+import com.example.demowithtests.dto.EmployeeImportResultDto;
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.batch.EmployeeBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.demowithtests.dto.EmployeeBatchResultDto.Status.CREATED;
+import static com.example.demowithtests.dto.EmployeeBatchResultDto.Status.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+@DisplayName("Import Tests")
+public class ImportTests {
+
+    private static final String DOMAIN = "@import.ua";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeBatchService employeeBatchService;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll(imported());
+    }
+
+    @Test
+    @DisplayName("CSV import with line errors test")
+    public void csvImportTest() throws Exception {
+        String csv = "name,email,country,gender,address_country,address_city,address_street\n" +
+                "Olha,olha" + DOMAIN + ",Ukraine,F,UA,Kyiv,\"Khreshchatyk, 1\"\n" +
+                "\n" +
+                "Petro,petro" + DOMAIN + ",Ukraine,X,,,\n" +
+                "\"Multi\nline\",multi@mail.ru,Ukraine,M,,,\n" +
+                "Ivan,ivan" + DOMAIN + ",,M,,,\n" +
+                "Taras,taras" + DOMAIN + ",Ukraine,m,ukr,,\n" +
+                "Too,few\n" +
+                "Mykola,mykola" + DOMAIN + ",Ukraine,M,,,";
+
+        EmployeeImportResultDto result = upload("employees.csv", csv);
+
+        assertThat(result.records()).isEqualTo(7);
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(5);
+        assertThat(result.errors())
+                .extracting(EmployeeImportResultDto.LineError::line)
+                .containsExactly(4L, 5L, 7L, 8L, 9L);
+        assertThat(result.errors().get(0).errors()).containsExactly("gender: must be one of [M, F]");
+        assertThat(result.errors().get(1).errors()).singleElement().asString().startsWith("email:");
+        assertThat(result.errors().get(2).errors()).containsExactly("You must specify an existing country.");
+        assertThat(result.errors().get(3).errors()).singleElement().asString().startsWith("addresses[].country:");
+
+        assertThat(imported())
+                .extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("olha" + DOMAIN, "mykola" + DOMAIN);
+    }
+
+    @Test
+    @DisplayName("NDJSON import creates the valid lines of a failing chunk test")
+    public void ndjsonImportTest() throws Exception {
+        String ndjson = String.join("\n",
+                json("Oksana", "oksana", "IMPORT-1"),
+                "{not json",
+                json("Bohdan", "bohdan", "IMPORT-1"),
+                json("Lesia", "lesia", null),
+                "");
+
+        EmployeeImportResultDto result = upload("employees.ndjson", ndjson);
+
+        // the duplicate document number fails the chunk, it is then created one by one
+        assertThat(result.records()).isEqualTo(4);
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.errors())
+                .extracting(EmployeeImportResultDto.LineError::line)
+                .containsExactly(2L, 3L);
+        assertThat(result.errors().get(0).errors()).singleElement().asString().startsWith("Invalid JSON");
+        assertThat(result.rowsPerSecond()).isPositive();
+
+        assertThat(imported())
+                .extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("oksana" + DOMAIN, "lesia" + DOMAIN);
+    }
+
+    @Test
+    @DisplayName("Batch reports the item failing the transaction and creates the others test")
+    public void batchFallbackTest() throws Exception {
+        String batch = "[" + String.join(",",
+                json("Roman", "roman", "BATCH-1"),
+                json("Sofia", "sofia", "BATCH-1"),
+                json("Yurii", "yurii", null)) + "]";
+
+        String body = mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<EmployeeBatchResultDto> results = List.of(objectMapper.readValue(body, EmployeeBatchResultDto[].class));
+
+        assertThat(results)
+                .extracting(EmployeeBatchResultDto::status)
+                .containsExactly(CREATED, REJECTED, CREATED);
+        assertThat(results.get(1).errors()).singleElement().asString().isNotBlank();
+        assertThat(imported())
+                .extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("roman" + DOMAIN, "yurii" + DOMAIN);
+    }
+
+    @Test
+    @DisplayName("Batch leaves the documents of the request untouched test")
+    public void batchDocumentTest() {
+        var document = new Document();
+        document.setNumber("BATCH-2");
+
+        List<EmployeeBatchResultDto> results = employeeBatchService.saveAll(List.of(new EmployeeSaveDto(null,
+                "Ostap", "Ukraine", "ostap" + DOMAIN, null, Gender.M, null, document)));
+
+        assertThat(results).extracting(EmployeeBatchResultDto::status).containsExactly(CREATED);
+        assertThat(document.getId()).isNull();
+        assertThat(document.getVersion()).isNull();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Filling the database needs ADMIN test")
+    public void fillSecuredTest() throws Exception {
+        mockMvc.perform(get("/api/users/fill")).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/fill").param("count", "10")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Unknown format is rejected test")
+    public void unknownFormatTest() throws Exception {
+        mockMvc.perform(multipart("/api/users/import")
+                        .file(new MockMultipartFile("file", "employees.xml", "text/xml", new byte[0])))
+                .andExpect(status().isBadRequest());
+    }
+
+    private EmployeeImportResultDto upload(String filename, String content) throws Exception {
+        var file = new MockMultipartFile("file", filename, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+        String body = mockMvc.perform(multipart("/api/users/import").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, EmployeeImportResultDto.class);
+    }
+
+    private static String json(String name, String email, String document) {
+        return "{\"name\":\"" + name + "\",\"email\":\"" + email + DOMAIN + "\",\"country\":\"Ukraine\",\"gender\":\"F\"," +
+                "\"addresses\":[{\"country\":\"UA\",\"city\":\"Lviv\"},{\"country\":\"PL\",\"city\":\"Krakow\"}]" +
+                (document == null ? "" : ",\"document\":{\"number\":\"" + document + "\"}") + "}";
+    }
+
+    private List<Employee> imported() {
+        return employeeRepository.findAll().stream()
+                .filter(employee -> employee.getEmail() != null && employee.getEmail().endsWith(DOMAIN))
+                .toList();
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.domain.MailStatus;
+import com.example.demowithtests.dto.MailJobDto;
+import com.example.demowithtests.dto.MailRecipientDto;
+import com.example.demowithtests.repository.EmployeeCriteria;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.repository.MailOutboxQueue;
+import com.example.demowithtests.repository.MailOutboxQueue.ClaimedMessage;
+import com.example.demowithtests.repository.MailOutboxRepository;
+import com.example.demowithtests.service.emailService.EmailSenderService;
+import com.example.demowithtests.service.emailService.EmailSenderServiceBean;
+import com.example.demowithtests.service.mail.MailDispatcher;
+import com.example.demowithtests.service.mail.MailJobService;
+import com.example.demowithtests.util.config.MailOutboxProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "app.mail.outbox.poll-interval=100ms",
+        "app.mail.outbox.initial-backoff=200ms",
+        "app.mail.outbox.messages-per-connection=2",
+        "app.mail.outbox.deliver-to-employees=true",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"USER", "ADMIN"})
+@DisplayName("Mail Outbox Tests")
+public class MailOutboxTests {
+
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MailJobService mailJobService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Integer> ids = new ArrayList<>();
+
+    private GreenMail greenMail;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+        employeeRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @DisplayName("Matching employees are mailed in the background, invalid addresses fail test")
+    public void mailJobTest() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            save("Mailed " + i, "Mailland", "mailed" + i + "@example.com");
+        }
+        save("Invalid", "Mailland", "not an address");
+        save("Elsewhere", "Otherland", "elsewhere@example.com");
+
+        String response = mockMvc.perform(post("/api/mail-jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"country": "Mailland", "subject": "Hello", "body": "Dear {name}!"}"""))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode job = objectMapper.readTree(response);
+        assertThat(job.get("recipients").asInt()).isEqualTo(6);
+        String id = job.get("id").asText();
+
+        MailJobDto finished = await(id, MailJobDto::finished);
+        assertThat(finished.sent()).isEqualTo(5);
+        assertThat(finished.failed()).isEqualTo(1);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(5);
+        assertThat(Arrays.stream(received).map(GreenMailUtil::getBody))
+                .contains("Dear Mailed 0!", "Dear Mailed 4!");
+        List<MailRecipientDto> failed = mailJobService.getRecipients(id, MailStatus.FAILED, 0, 10);
+        assertThat(failed).singleElement().satisfies(recipient -> {
+            assertThat(recipient.recipient()).isEqualTo("not an address");
+            assertThat(recipient.attempts()).isEqualTo(1);
+            assertThat(recipient.lastError()).contains("MailParseException");
+        });
+
+        mockMvc.perform(get("/api/mail-jobs/{id}/recipients", id).param("status", "SENT"))
+                .andExpect(status().isOk());
+        assertThat(mailJobService.getRecipients(id, null, 0, Integer.MAX_VALUE)).hasSize(6);
+        mockMvc.perform(get("/api/mail-jobs/{id}", "unknown")).andExpect(status().isBadRequest());
+
+        // a worker whose lease ran out, the message claimed again since, cannot record it as sent
+        long failedId = mailOutboxRepository.findByJobIdAndStatusOrderById(id, MailStatus.FAILED, PageRequest.of(0, 1))
+                .get(0).getId();
+        mailOutboxRepository.markSent(List.of(new ClaimedMessage(failedId, "not an address", "Invalid", 0, "", "")));
+        assertThat(mailJobService.getRecipients(id, MailStatus.FAILED, 0, 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Mails are sent again with backoff while the server is down test")
+    public void retryTest() throws Exception {
+        greenMail.stop();
+        save("Retried", "Retryland", "retried@example.com");
+
+        String id = mailJobService.start(EmployeeCriteria.byCountry("Retryland"), "Hello", "Dear {name}!").id();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        List<MailRecipientDto> recipients;
+        do {
+            Thread.sleep(50);
+            recipients = mailJobService.getRecipients(id, null, 0, 10);
+        } while (recipients.get(0).attempts() < 2 && System.currentTimeMillis() < deadline);
+        assertThat(recipients.get(0).lastError()).isNotNull();
+        assertThat(recipients.get(0).status()).isNotEqualTo(MailStatus.FAILED);
+
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        MailJobDto finished = await(id, MailJobDto::finished);
+        assertThat(finished.sent()).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Ukrainians are mailed through the outbox test")
+    public void ukrainiansTest() throws Exception {
+        save("Olena", "Ukraine", "olena@example.com");
+        save("Mario", "Italy", "mario@example.com");
+
+        String response = mockMvc.perform(patch("/api/users/ukrainians"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        MailJobDto finished = await(objectMapper.readTree(response).get("id").asText(), MailJobDto::finished);
+        assertThat(finished.failed()).isZero();
+        assertThat(Arrays.stream(greenMail.getReceivedMessages()).map(GreenMailUtil::getBody))
+                .anyMatch(body -> body.startsWith("Dear Olena!"));
+    }
+
+    @Test
+    @DisplayName("Mail goes to the test recipient unless delivery to employees is on test")
+    @SuppressWarnings("unchecked")
+    public void testRecipientTest() {
+        var properties = new MailOutboxProperties();
+        properties.setPollInterval(Duration.ofMillis(10));
+        var message = new ClaimedMessage(1, "olena@example.com", "Olena", 1, "Hello", "Dear {name}!");
+        MailOutboxQueue outbox = mock(MailOutboxQueue.class);
+        when(outbox.claimDue(anyInt(), any())).thenReturn(List.of(message), List.of());
+        EmailSenderService emailSenderService = mock(EmailSenderService.class);
+        when(emailSenderService.sendEmails(any())).thenReturn(Map.of());
+        ArgumentCaptor<Map<Long, SimpleMailMessage>> mails = ArgumentCaptor.forClass(Map.class);
+
+        try (var dispatcher = new MailDispatcher(outbox, emailSenderService, properties, new SimpleMeterRegistry())) {
+            verify(emailSenderService, timeout(TIMEOUT_MILLIS)).sendEmails(mails.capture());
+            verify(outbox, timeout(TIMEOUT_MILLIS)).markSent(List.of(message));
+        }
+
+        assertThat(mails.getValue().get(1L).getTo()).containsExactly(properties.getTestRecipient());
+        assertThat(mails.getValue().get(1L).getText()).isEqualTo("Dear Olena!");
+    }
+
+    @Test
+    @DisplayName("Equal messages keep their own failures test")
+    public void equalMessagesTest() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (Object message : invocation.getArguments()) {
+                failed.put(message, new MessagingException("Mailbox full"));
+            }
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(MimeMessage[].class));
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo("same@example.com");
+        message.setText("Same");
+
+        Map<Long, Exception> failures = new EmailSenderServiceBean(mailSender)
+                .sendEmails(Map.of(1L, message, 2L, new SimpleMailMessage(message)));
+
+        assertThat(failures).containsOnlyKeys(1L, 2L);
+    }
+
+    private void save(String name, String country, String email) {
+        ids.add(employeeRepository.save(Employee.builder()
+                .name(name)
+                .country(country)
+                .email(email)
+                .gender(Gender.F)
+                .build()).getId());
+    }
+
+    private MailJobDto await(String id, Predicate<MailJobDto> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        MailJobDto job = mailJobService.getJob(id);
+        while (!condition.test(job) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = mailJobService.getJob(id);
+        }
+        assertThat(condition).accepts(job);
+        return job;
+    }
+}
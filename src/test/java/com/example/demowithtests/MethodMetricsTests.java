@@ -0,0 +1,44 @@
+package com.example.demowithtests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@WithMockUser(roles = "USER")
+@DisplayName("Method Metrics Tests")
+public class MethodMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Controller and service timers are published for Prometheus test")
+    public void prometheusTest() throws Exception {
+        mockMvc.perform(get("/api/users")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/{id}", Integer.MAX_VALUE)).andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("controller_calls_seconds_count{class=\"EmployeeController\",exception=\"none\",method=\"getAllUsers\",}")
+                .contains("service_calls_seconds_bucket{class=\"EmployeeServiceBean\",exception=\"none\",method=\"getAll\",le=")
+                .contains("service_calls_seconds{class=\"EmployeeServiceBean\",exception=\"none\",method=\"getAll\",quantile=\"0.99\",}")
+                .contains("service_calls_seconds_count{class=\"EmployeeServiceBean\",exception=\"ResourceNotFoundException\",method=\"getById\",}");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.EmployeeService;
+import com.example.demowithtests.util.datasource.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:config_primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].url=" + ReplicaDataSourceConfigTests.REPLICA_URL,
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.replicas[0].password=sa",
+        "spring.jpa.show-sql=false"})
+@DisplayName("Replica Data Source Config Tests")
+public class ReplicaDataSourceConfigTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:config_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> ids = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @DisplayName("Read-only service methods read from the replica through JPA test")
+    public void readOnlyServiceMethodTest() {
+        assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+        assertThat(replicaRoutingDataSource.getHealthyReplicas()).containsExactly("replica-0");
+        ids.add(employeeRepository.save(employee("Replicated")).getId());
+        copyPrimaryToReplica();
+        // not replicated yet, the replica lags behind
+        ids.add(employeeRepository.save(employee("Lagging")).getId());
+
+        assertThat(employeeService.getAll()).extracting(Employee::getName)
+                .contains("Replicated")
+                .doesNotContain("Lagging");
+        // outside a read-only transaction
+        assertThat(new JdbcTemplate(dataSource).queryForList("select name from users", String.class))
+                .contains("Replicated", "Lagging");
+    }
+
+    private void copyPrimaryToReplica() {
+        copyToReplica(dataSource);
+    }
+
+    // stands in for streaming replication: the replica becomes a copy of the primary as of now
+    private static void copyToReplica(DataSource primary) {
+        List<String> script = new JdbcTemplate(primary).queryForList("SCRIPT", String.class);
+        JdbcDataSource replica = new JdbcDataSource();
+        replica.setURL(REPLICA_URL);
+        replica.setUser("sa");
+        replica.setPassword("sa");
+        JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(replica);
+        replicaJdbcTemplate.execute("DROP ALL OBJECTS");
+        script.forEach(replicaJdbcTemplate::execute);
+    }
+
+    @TestConfiguration
+    static class ReplicationConfig {
+
+        // the replica gets the schema as soon as Hibernate created it, reads at startup already go there
+        @Bean
+        static BeanPostProcessor replicatingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof EntityManagerFactoryInfo entityManagerFactory) {
+                        copyToReplica(entityManagerFactory.getDataSource());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static Employee employee(String name) {
+        return Employee.builder()
+                .name(name)
+                .country("Replicaland")
+                .gender(Gender.M)
+                .build();
+    }
+}
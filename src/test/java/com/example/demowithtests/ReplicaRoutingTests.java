@@ -0,0 +1,160 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.util.datasource.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Replica Routing Tests")
+public class ReplicaRoutingTests {
+
+    private final DataSource primary = h2("primary");
+
+    private final DataSource replicaA = h2("replica_a");
+
+    private final DataSource replicaB = h2("replica_b");
+
+    private final DataSource brokenReplica = mock(DataSource.class);
+
+    private ReplicaRoutingDataSource routing;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary test")
+    public void writesGoToPrimaryTest() {
+        route(Map.of("a", replicaA));
+
+        assertThat(database()).isEqualTo("PRIMARY");
+        assertThat(readWriteDatabase()).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions are spread over the replicas test")
+    public void readOnlyRoundRobinTest() {
+        route(replicas("a", replicaA, "b", replicaB));
+
+        List<String> databases = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(readOnlyDatabase());
+        }
+
+        assertThat(databases).containsExactly("REPLICA_A", "REPLICA_B", "REPLICA_A", "REPLICA_B");
+    }
+
+    @Test
+    @DisplayName("Failing replica is ejected test")
+    public void failingReplicaIsEjectedTest() {
+        route(replicas("broken", brokenReplica, "b", replicaB));
+
+        assertThat(readOnlyDatabase()).isEqualTo("REPLICA_B");
+        assertThat(routing.getHealthyReplicas()).containsExactly("b");
+        assertThat(readOnlyDatabase()).isEqualTo("REPLICA_B");
+    }
+
+    @Test
+    @DisplayName("Reads fall back to the primary and replicas come back test")
+    public void fallbackAndRecoveryTest() throws SQLException {
+        DataSource flakyReplica = mock(DataSource.class);
+        when(flakyReplica.getConnection())
+                .thenThrow(new SQLException("Connection refused"))
+                .thenAnswer(invocation -> replicaA.getConnection());
+        route(Map.of("flaky", flakyReplica));
+
+        assertThat(readOnlyDatabase()).isEqualTo("PRIMARY");
+        assertThat(routing.getHealthyReplicas()).isEmpty();
+
+        routing.checkHealth();
+
+        assertThat(routing.getHealthyReplicas()).containsExactly("flaky");
+        assertThat(readOnlyDatabase()).isEqualTo("REPLICA_A");
+    }
+
+    @Test
+    @DisplayName("Connections with credentials are routed too test")
+    public void credentialsTest() {
+        route(Map.of("a", replicaA));
+
+        String replica = readOnly.execute(status -> catalog("sa", ""));
+        assertThat(replica).isEqualTo("REPLICA_A");
+        assertThat(catalog("sa", "")).isEqualTo("PRIMARY");
+    }
+
+    private void route(Map<String, DataSource> replicas) {
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofHours(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private String catalog(String username, String password) {
+        try (Connection connection = routing.getConnection(username, password)) {
+            return connection.getCatalog();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String readOnlyDatabase() {
+        return readOnly.execute(status -> database());
+    }
+
+    private String readWriteDatabase() {
+        return readWrite.execute(status -> database());
+    }
+
+    private static Map<String, DataSource> replicas(String first, DataSource firstReplica,
+                                                    String second, DataSource secondReplica) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put(first, firstReplica);
+        replicas.put(second, secondReplica);
+        return replicas;
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Address;
+import com.example.demowithtests.domain.Document;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.repository.EmployeeCriteria;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.repository.EmployeeStatsAttribute;
+import com.example.demowithtests.util.LikePatterns;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements of every {@link EmployeeRepository} method, addresses included, so a
+ * lost fetch plan or an N+1 fails the build. The second-level cache is emptied before each measurement.
+ * {@code searchRanked} needs pg_trgm and is covered by {@link TrigramSearchPostgresTests} only, the native
+ * {@code saveEmployee} relies on a column default of {@code users.id} that only the Flyway schema has.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(SqlRecorderConfig.class)
+@DisplayName("Repository Query Budget Tests")
+public class RepositoryQueryBudgetTests {
+
+    private static final int EMPLOYEES = 6;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Integer> ids;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(employee(i));
+        }
+        ids = employeeRepository.saveAll(employees).stream().map(Employee::getId).toList();
+    }
+
+    @Test
+    @DisplayName("List reads fetch addresses in the same statement")
+    public void listReadsTest() throws Exception {
+        assertBudget(1, () -> addresses(employeeRepository.findAll()));
+        assertBudget(1, () -> addresses(employeeRepository.findById(ids.get(0))));
+        assertBudget(1, () -> addresses(employeeRepository.findEmployeesByCountry("Ukraine")));
+        assertBudget(1, () -> addresses(employeeRepository.findByNameContaining("Budget")));
+        assertBudget(1, () -> addresses(employeeRepository.findAllByCountryStartsWithLowerCase()));
+        assertBudget(1, () -> addresses(employeeRepository.findAllByCountryNotIn(List.of("Italy"))));
+        assertBudget(1, () -> addresses(employeeRepository.findByName("Budget Oleh")));
+        assertBudget(1, () -> addresses(employeeRepository.findByIdIn(ids)));
+        assertBudget(1, () -> addresses(employeeRepository.findAllUkrainian()));
+        assertBudget(1, () -> addresses(employeeRepository.findAllRussian()));
+        assertBudget(1, () -> addresses(employeeRepository.findAllUkrainianByNameOleh()));
+        assertBudget(1, () -> addresses(employeeRepository.findAllItalyByNameMario()));
+        assertBudget(1, () -> addresses(employeeRepository.findAllDeletedBelarus()));
+    }
+
+    @Test
+    @DisplayName("Native, paged and streamed reads batch fetch addresses")
+    public void batchFetchedReadsTest() throws Exception {
+        // one statement for the rows, one for the addresses of all of them
+        assertBudget(2, () -> addresses(employeeRepository.findByNameILike("%budget%")));
+        assertBudget(2, () -> addresses(employeeRepository.findByGender("F", "UA")));
+        assertBudget(2, () -> addresses(employeeRepository.findByCountryILike("%u%", PageRequest.of(0, 10))));
+        assertBudget(2, () -> addresses(employeeRepository.findByCountryContaining("a", PageRequest.of(0, 10))));
+        // document joined, addresses batch fetched
+        assertBudget(2, () -> {
+            Page<Employee> page = employeeRepository.findByName("Budget Oleh", PageRequest.of(0, 10));
+            page.forEach(employee -> employee.getDocument().getNumber());
+            addresses(page);
+        });
+        // a full page needs the count
+        assertBudget(3, () -> addresses(employeeRepository.findAll(PageRequest.of(0, EMPLOYEES / 2, Sort.by("id")))));
+        assertBudget(2, () -> {
+            try (var employees = employeeRepository.streamAll()) {
+                addresses(employees.toList());
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Projections and aggregates are single statements")
+    public void projectionsTest() throws Exception {
+        assertBudget(1, () -> employeeRepository.findDistinctCountries());
+        assertBudget(1, () -> employeeRepository.findDistinctCountriesLike(LikePatterns.startsWith("U")));
+        assertBudget(1, () -> employeeRepository.findFirstEmailLike(LikePatterns.endsWith(".ua")));
+        assertBudget(1, () -> employeeRepository.findEmployeeByEmailNotNull());
+        assertBudget(1, () -> employeeRepository.countAllUkrainianWomen());
+        assertBudget(1, () -> employeeRepository.countGroupedBy(EnumSet.allOf(EmployeeStatsAttribute.class)));
+        assertBudget(1, () -> employeeRepository.count());
+        assertBudget(1, () -> {
+            try (var rows = employeeRepository.streamSearchRows()) {
+                assertThat(rows.count()).isEqualTo(EMPLOYEES);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Updates do not load the employees")
+    public void updatesTest() throws Exception {
+        assertBudget(1, () -> employeeRepository.updateByCountryRussia());
+        assertBudget(1, () -> employeeRepository.updateEmployeeByName("Budget Taras", ids.get(1)));
+        assertBudget(1, () -> employeeRepository.updateEmployee("Budget Ivan", "ivan@budget.ua", "Ukraine", ids.get(2)));
+        assertBudget(1, () -> employeeRepository.updateColumns(ids.get(3), Map.of("country", "Poland"), null));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Bulk soft delete is one statement per chunk")
+    public void updateDeletedFlagTest() throws Exception {
+        try {
+            // the chunks run in their own transactions, they only see committed rows
+            assertBudget(2, () -> employeeRepository.updateDeletedFlag(
+                    EmployeeCriteria.byCountry("Ukraine"), true, EMPLOYEES / 2));
+        } finally {
+            employeeRepository.deleteAllById(ids);
+        }
+    }
+
+    @Test
+    @DisplayName("Writes are sent as JDBC batches")
+    public void writesTest() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            employees.add(employee(i));
+        }
+        var recorded = record(() -> {
+            employeeRepository.saveAll(employees);
+            entityManager.flush();
+        });
+        // one batch per table and one setting the owner of the addresses, ids come in blocks of 50
+        assertThat(recorded.count("insert")).as("inserts%n%s", recorded).isEqualTo(3);
+        assertThat(recorded.count("update")).as("updates%n%s", recorded).isEqualTo(1);
+    }
+
+    private void assertBudget(int statements, SqlRecorder.SqlAction action) throws Exception {
+        var recorded = record(action);
+        assertThat(recorded.count()).as("statements%n%s", recorded).isEqualTo(statements);
+    }
+
+    /**
+     * Records {@code action} with an empty persistence context and second-level cache, failing on an N+1.
+     */
+    private SqlRecorder.Statements record(SqlRecorder.SqlAction action) throws Exception {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        var recorded = SqlRecorder.record(action);
+
+        assertThat(recorded.repeatedSelects()).as("N+1 in%n%s", recorded).isEmpty();
+        return recorded;
+    }
+
+    /**
+     * Initializes the addresses of the employees in {@code result}, an employee, a collection or an optional of either.
+     */
+    private static void addresses(Object result) {
+        if (result instanceof Optional<?> optional) {
+            optional.ifPresent(RepositoryQueryBudgetTests::addresses);
+        } else if (result instanceof Iterable<?> employees) {
+            employees.forEach(RepositoryQueryBudgetTests::addresses);
+        } else {
+            ((Employee) result).getAddresses().size();
+        }
+    }
+
+    private static Employee employee(int i) {
+        String[] names = {"Budget Oleh", "Budget Olena", "Budget Mario", "Budget Anna", "Budget Petro", "Budget Iryna"};
+        String[] countries = {"Ukraine", "Ukraine", "Italy", "Belarus", "Ukraine", "Russian Federation"};
+        var addresses = new HashSet<>(Set.of(
+                Address.builder().country("UA").city("Kyiv").addressHasActive(true).build(),
+                Address.builder().country("PL").city("Krakow").addressHasActive(false).build()));
+        return Employee.builder()
+                .name(names[i % names.length])
+                .country(countries[i % countries.length])
+                .email(i == 0 ? "oleh@budget.ua" : null)
+                .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                .isDeleted(i % names.length == 3)
+                .addresses(addresses)
+                .document(i == 0 ? Document.builder().number("BUDGET-" + System.nanoTime()).build() : null)
+                .build();
+    }
+}
@@ -3,13 +3,27 @@ package com.example.demowithtests;
 import com.example.demowithtests.domain.Address;
 import com.example.demowithtests.domain.Employee;
 import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.repository.EmployeeCriteria;
 import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.repository.EmployeeStatsAttribute;
+import com.example.demowithtests.repository.EmployeeStatsRow;
+import com.example.demowithtests.util.LikePatterns;
+import com.example.demowithtests.util.pagination.KeysetCursor;
+import com.example.demowithtests.util.pagination.KeysetSpecifications;
+import jakarta.persistence.EntityManagerFactory;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,6 +38,9 @@ public class RepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @Order(1)
     @Rollback(value = false)
@@ -247,4 +264,216 @@ public class RepositoryTests {
 
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("Keyset pagination by country test")
+    public void keysetPaginationByCountryTest() {
+
+        List<String> names = Arrays.asList("Anna", "Bohdan", null, "Dmytro", "Iryna", null, "Taras");
+        names.forEach(name -> employeeRepository.save(Employee.builder()
+                .name(name)
+                .country("Keysetland")
+                .build()));
+
+        // employees without a name come last, in both directions, and none is skipped or repeated
+        assertThat(walk(Sort.by(Sort.Direction.ASC, "name", "id")))
+                .containsExactly("Anna", "Bohdan", "Dmytro", "Iryna", "Taras", null, null);
+        assertThat(walk(Sort.by(Sort.Direction.DESC, "name", "id")))
+                .containsExactly(null, null, "Taras", "Iryna", "Dmytro", "Bohdan", "Anna");
+
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(Map.of("name", "Anna", "id", 1)));
+        Assertions.assertThatThrownBy(() -> KeysetCursor.decode(cursor, Sort.by("email", "id")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<String> walk(Sort sort) {
+        Specification<Employee> byCountry = (root, query, cb) -> cb.like(root.get("country"), "%Keyset%");
+        List<String> visited = new ArrayList<>();
+        Map<String, Object> keys = KeysetCursor.decode(null, sort);
+        List<Employee> window;
+        do {
+            window = employeeRepository.findBy(byCountry.and(KeysetSpecifications.seekAfter(keys, sort)),
+                    query -> query.limit(2).all());
+            window.forEach(employee -> visited.add(employee.getName()));
+            if (!window.isEmpty()) {
+                Employee last = window.get(window.size() - 1);
+                Map<String, Object> position = new LinkedHashMap<>();
+                position.put("name", last.getName());
+                position.put("id", last.getId());
+                keys = KeysetCursor.decode(KeysetCursor.encode(ScrollPosition.forward(position)), sort);
+            }
+        } while (!window.isEmpty());
+        return visited;
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Case-insensitive substring search test")
+    public void findByNameILikeTest() {
+
+        employeeRepository.save(Employee.builder().name("Olena_K").country("Ukraine").build());
+        employeeRepository.save(Employee.builder().name("olenka").country("Ukraine").build());
+
+        assertThat(employeeRepository.findByNameILike("%OLEN%"))
+                .extracting(Employee::getName)
+                .containsExactlyInAnyOrder("Olena_K", "olenka");
+        assertThat(employeeRepository.findByNameILike("%a\\_k%"))
+                .extracting(Employee::getName)
+                .containsExactly("Olena_K");
+    }
+
+    @Test
+    @Order(11)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Second-level and query cache test")
+    public void secondLevelCacheTest() {
+
+        var employee = employeeRepository.save(Employee.builder()
+                .name("Cached")
+                .country("Ukraine")
+                .gender(Gender.F)
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(employee.getId());
+        int women = employeeRepository.countAllUkrainianWomen();
+        employeeRepository.countAllUkrainianWomen();
+
+        assertThat(statistics.getDomainDataRegionStatistics(Employee.class.getName()).getHitCount()).isPositive();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        // native updates evict the regions of their query space
+        employeeRepository.updateEmployee("Renamed", null, "Ukraine", employee.getId());
+
+        assertThat(employeeRepository.findById(employee.getId()))
+                .get()
+                .extracting(Employee::getName)
+                .isEqualTo("Renamed");
+
+        employeeRepository.deleteById(employee.getId());
+
+        assertThat(employeeRepository.countAllUkrainianWomen()).isEqualTo(women - 1);
+    }
+
+    @Test
+    @Order(12)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Bulk soft delete and restore test")
+    public void updateDeletedFlagTest() {
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            employees.add(Employee.builder()
+                    .name("Bulk" + i)
+                    .country("Atlantis")
+                    .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                    .isDeleted(false)
+                    .build());
+        }
+        List<Integer> ids = employeeRepository.saveAll(employees).stream().map(Employee::getId).sorted().toList();
+
+        // chunk smaller than the match count
+        List<Integer> deleted = employeeRepository.updateDeletedFlag(EmployeeCriteria.byCountry("Atlantis"), true, 2);
+
+        assertThat(deleted).containsExactlyElementsOf(ids);
+        assertThat(employeeRepository.findAllById(ids)).allMatch(Employee::getIsDeleted);
+
+        // already deleted rows are not touched again
+        assertThat(employeeRepository.updateDeletedFlag(EmployeeCriteria.byCountry("Atlantis"), true, 2)).isEmpty();
+
+        var women = new EmployeeCriteria("Atlantis", Gender.F, null, null);
+        assertThat(employeeRepository.updateDeletedFlag(women, false, 100)).containsExactly(ids.get(1), ids.get(3));
+
+        var byIds = new EmployeeCriteria(null, null, List.of(ids.get(4), ids.get(0), ids.get(0)), null);
+        assertThat(employeeRepository.updateDeletedFlag(byIds, false, 1)).containsExactly(ids.get(0), ids.get(4));
+        assertThat(employeeRepository.findAllById(ids))
+                .filteredOn(Employee::getIsDeleted)
+                .extracting(Employee::getId)
+                .containsExactly(ids.get(2));
+
+        employeeRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Country, email and statistics projections test")
+    public void projectionQueriesTest() {
+
+        employeeRepository.saveAll(List.of(
+                Employee.builder().name("Stat1").country("Uzbekistan").email("stat1@mail.com").gender(Gender.M).isDeleted(false).build(),
+                Employee.builder().name("Stat2").country("Uzbekistan").email("stat2@mail.ua").gender(Gender.F).isDeleted(true).build(),
+                Employee.builder().name("Stat3").country("U_land").email("stat3@mail.ua").gender(Gender.F).isDeleted(false).build()));
+
+        List<String> countries = employeeRepository.findDistinctCountries();
+        assertThat(countries).containsOnlyOnce("Uzbekistan").isSorted();
+
+        // "_" is escaped, so it only matches itself
+        assertThat(employeeRepository.findDistinctCountriesLike(LikePatterns.startsWith("U_")))
+                .containsExactly("U_land");
+        assertThat(employeeRepository.findDistinctCountriesLike(LikePatterns.startsWith("U")))
+                .contains("U_land", "Uzbekistan")
+                .allMatch(country -> country.startsWith("U"))
+                .doesNotHaveDuplicates();
+
+        assertThat(employeeRepository.findFirstEmailLike(LikePatterns.endsWith(".ua"))).isPresent();
+        assertThat(employeeRepository.findFirstEmailLike(LikePatterns.endsWith(".nowhere"))).isEmpty();
+
+        var stats = employeeRepository.countGroupedBy(EnumSet.allOf(EmployeeStatsAttribute.class));
+        assertThat(stats)
+                .filteredOn(row -> "Uzbekistan".equals(row.country()))
+                .containsExactly(
+                        new EmployeeStatsRow("Uzbekistan", Gender.F, true, 1),
+                        new EmployeeStatsRow("Uzbekistan", Gender.M, false, 1));
+
+        assertThat(employeeRepository.countGroupedBy(Set.of(EmployeeStatsAttribute.COUNTRY)))
+                .contains(new EmployeeStatsRow("Uzbekistan", null, null, 2));
+
+        var total = employeeRepository.countGroupedBy(Set.of());
+        assertThat(total).singleElement()
+                .extracting(EmployeeStatsRow::count)
+                .isEqualTo(employeeRepository.count());
+    }
+
+    @Test
+    @Order(14)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Conditional update with version test")
+    public void updateColumnsTest() {
+
+        Employee saved = employeeRepository.save(Employee.builder()
+                .name("Versioned")
+                .country("Ukraine")
+                .gender(Gender.M)
+                .isDeleted(false)
+                .build());
+        Integer id = saved.getId();
+        Long version = saved.getVersion();
+
+        var updated = employeeRepository.updateColumns(id, Map.of("country", "Poland", "gender", Gender.F), version);
+        assertThat(updated).hasValueSatisfying(employee -> {
+            assertThat(employee.getCountry()).isEqualTo("Poland");
+            assertThat(employee.getGender()).isEqualTo(Gender.F);
+            assertThat(employee.getName()).isEqualTo("Versioned");
+            assertThat(employee.getVersion()).isEqualTo(version + 1);
+        });
+
+        // stale version
+        assertThat(employeeRepository.updateColumns(id, Map.of("name", "Stale"), version)).isEmpty();
+        // no version, last write wins
+        assertThat(employeeRepository.updateColumns(id, Map.of("name", "Forced"), null))
+                .map(Employee::getVersion)
+                .hasValue(version + 2);
+
+        employeeRepository.updateDeletedFlag(EmployeeCriteria.byId(id), true, 1);
+        assertThat(employeeRepository.updateColumns(id, Map.of("name", "Deleted"), null)).isEmpty();
+
+        Employee reloaded = employeeRepository.findById(id).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Forced");
+        assertThat(reloaded.getVersion()).isEqualTo(version + 3);
+
+        employeeRepository.deleteById(id);
+    }
+
 }
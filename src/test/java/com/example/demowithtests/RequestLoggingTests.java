@@ -0,0 +1,297 @@
+package com.example.demowithtests;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.demowithtests.util.logging.JsonLineEncoder;
+import com.example.demowithtests.util.logging.RequestLoggingFilter;
+import com.example.demowithtests.util.logging.RequestSamplingTurboFilter;
+import com.example.demowithtests.util.logging.SummarizingAsyncAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Request Logging Tests")
+public class RequestLoggingTests {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    private final List<Runnable> cleanups = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        cleanups.forEach(Runnable::run);
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Events are written as JSON lines with MDC and key-value pairs test")
+    public void jsonLineTest() throws Exception {
+        Logger logger = context.getLogger("test.json");
+        var events = listAppender(logger);
+        MDC.put(RequestLoggingFilter.SAMPLED, "true");
+        logger.atInfo()
+                .addKeyValue("status", 200)
+                .addKeyValue("path", "/api/users")
+                .setCause(new IllegalStateException("boom"))
+                .log("\u001B[32mdone\u001B[0m in {} ms", 12);
+
+        var encoder = new JsonLineEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        String line = new String(encoder.encode(events.list.get(0)), StandardCharsets.UTF_8);
+
+        assertThat(line).endsWith("}\n").doesNotContain("\n{");
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertThat(json.get("level").asText()).isEqualTo("INFO");
+        assertThat(json.get("logger").asText()).isEqualTo("test.json");
+        assertThat(json.get("message").asText()).isEqualTo("done in 12 ms");
+        assertThat(json.get("sampled").asText()).isEqualTo("true");
+        assertThat(json.get("status").isInt()).isTrue();
+        assertThat(json.get("path").asText()).isEqualTo("/api/users");
+        assertThat(json.get("exception").asText()).contains("IllegalStateException: boom");
+    }
+
+    @Test
+    @DisplayName("Events arriving at a full queue are dropped and summarized test")
+    public void droppedEventsTest() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var delivered = new BlockingListAppender(entered, release);
+        delivered.setContext(context);
+        delivered.start();
+        var async = new SummarizingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(2);
+        async.addAppender(delivered);
+        async.start();
+        Logger logger = context.getLogger("test.async");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        cleanups.add(() -> logger.detachAppender(async));
+
+        logger.info("first");
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        logger.info("second");
+        logger.info("third");
+        logger.info("lost");
+        logger.warn("lost too");
+        assertThat(async.getDropped()).isEqualTo(2);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (async.getNumberOfElementsInQueue() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        logger.info("last");
+        async.stop();
+
+        assertThat(delivered.messages()).containsExactly(
+                "first", "second", "third", "2 log events dropped by appender ASYNC, its queue of 2 was full", "last");
+        assertThat(async.getDropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("Events below WARN are dropped when the room left is under the discarding threshold test")
+    public void discardingThresholdTest() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var delivered = new BlockingListAppender(entered, release);
+        delivered.setContext(context);
+        delivered.start();
+        var async = new SummarizingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(4);
+        async.setDiscardingThreshold(2);
+        async.addAppender(delivered);
+        async.start();
+        Logger logger = context.getLogger("test.async.threshold");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        cleanups.add(() -> logger.detachAppender(async));
+
+        logger.info("first");
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        logger.info("second");
+        logger.info("third");
+        logger.info("fourth");
+        logger.info("lost");
+        logger.warn("kept");
+        assertThat(async.getDropped()).isEqualTo(1);
+
+        release.countDown();
+        async.stop();
+
+        assertThat(delivered.messages()).containsExactly("first", "second", "third", "fourth", "kept");
+    }
+
+    @Test
+    @DisplayName("Every event from concurrent threads is either delivered or counted as dropped test")
+    public void concurrentDropsTest() throws Exception {
+        var delivered = new BlockingListAppender(new CountDownLatch(1), new CountDownLatch(0));
+        delivered.setContext(context);
+        delivered.start();
+        var async = new SummarizingAsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(4);
+        async.addAppender(delivered);
+        async.start();
+        Logger logger = context.getLogger("test.async.concurrent");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        cleanups.add(() -> logger.detachAppender(async));
+
+        int threads = 8;
+        int events = 2_000;
+        List<Thread> loggers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            var thread = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    logger.info("event");
+                }
+            });
+            thread.start();
+            loggers.add(thread);
+        }
+        for (Thread thread : loggers) {
+            thread.join();
+        }
+        async.stop();
+
+        long summarized = 0;
+        long kept = 0;
+        for (String message : delivered.messages()) {
+            if (message.equals("event")) {
+                kept++;
+            } else {
+                summarized += Long.parseLong(message.substring(0, message.indexOf(' ')));
+            }
+        }
+        assertThat(kept + summarized + async.getDropped()).isEqualTo((long) threads * events);
+    }
+
+    @Test
+    @DisplayName("Configured loggers are silenced for requests not sampled test")
+    public void turboFilterTest() {
+        var filter = new RequestSamplingTurboFilter();
+        filter.addLogger("test.turbo.sql");
+        filter.start();
+        context.addTurboFilter(filter);
+        cleanups.add(() -> context.getTurboFilterList().remove(filter));
+        var events = listAppender(context.getLogger("test.turbo"));
+
+        context.getLogger("test.turbo.sql").info("outside of requests");
+        MDC.put(RequestLoggingFilter.SAMPLED, "false");
+        context.getLogger("test.turbo.sql").info("not sampled");
+        context.getLogger("test.turbo.sql.child").info("not sampled child");
+        context.getLogger("test.turbo.sqlite").info("other logger");
+        MDC.put(RequestLoggingFilter.SAMPLED, "true");
+        context.getLogger("test.turbo.sql").info("sampled");
+
+        assertThat(events.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("outside of requests", "other logger", "sampled");
+    }
+
+    @Test
+    @DisplayName("Requests are sampled at the rate of the first matching endpoint test")
+    public void samplingTest() throws Exception {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("/api/users/**", 0.0);
+        rates.put("/api/**", 1.0);
+        var filter = new RequestLoggingFilter(rates, 0.0, Duration.ofHours(1));
+        var events = listAppender(context.getLogger(RequestLoggingFilter.class));
+
+        assertThat(sampled(filter, "/api/users/1", HttpServletResponse.SC_OK)).isEqualTo("false");
+        assertThat(sampled(filter, "/api/documents", HttpServletResponse.SC_OK)).isEqualTo("true");
+        assertThat(sampled(filter, "/swagger-ui.html", HttpServletResponse.SC_OK)).isEqualTo("false");
+        assertThat(sampled(filter, "/api/users", HttpServletResponse.SC_INTERNAL_SERVER_ERROR)).isEqualTo("false");
+        assertThat(MDC.get(RequestLoggingFilter.SAMPLED)).isNull();
+
+        assertThat(events.list).extracting(ILoggingEvent::getFormattedMessage)
+                .hasSize(2)
+                .allMatch(message -> message.startsWith("GET /api/documents 200 ")
+                        || message.startsWith("GET /api/users 500 "));
+        assertThat(events.list.get(0).getKeyValuePairs()).extracting(pair -> pair.key)
+                .containsExactly("method", "path", "status", "durationMs");
+    }
+
+    private static String sampled(RequestLoggingFilter filter, String path, int status) throws Exception {
+        var request = new MockHttpServletRequest("GET", path);
+        var response = new MockHttpServletResponse();
+        String[] sampled = new String[1];
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                sampled[0] = MDC.get(RequestLoggingFilter.SAMPLED);
+                ((HttpServletResponse) response).setStatus(status);
+            }
+        });
+        return sampled[0];
+    }
+
+    private ListAppender<ILoggingEvent> listAppender(Logger logger) {
+        var appender = new ListAppender<ILoggingEvent>();
+        appender.setContext(context);
+        appender.start();
+        logger.addAppender(appender);
+        cleanups.add(() -> logger.detachAppender(appender));
+        return appender;
+    }
+
+    private static class BlockingListAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<String> messages = new ArrayList<>();
+
+        private final CountDownLatch entered;
+
+        private final CountDownLatch release;
+
+        BlockingListAppender(CountDownLatch entered, CountDownLatch release) {
+            this.entered = entered;
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (messages) {
+                messages.add(event.getFormattedMessage());
+            }
+        }
+
+        List<String> messages() {
+            synchronized (messages) {
+                return new ArrayList<>(messages);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Address;
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.util.profiling.RequestProfile;
+import com.example.demowithtests.util.profiling.RequestProfiler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.profiling.enabled=true",
+        "management.endpoints.web.exposure.include=slowrequests",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"USER", "ADMIN"})
+@DisplayName("Request Profiling Tests")
+public class RequestProfilingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private RequestProfiler requestProfiler;
+
+    private Integer id;
+
+    @AfterEach
+    void tearDown() {
+        if (id != null) {
+            employeeRepository.deleteById(id);
+        }
+        requestProfiler.reset();
+    }
+
+    @Test
+    @DisplayName("Slowest requests are listed with their breakdown test")
+    public void slowRequestsTest() throws Exception {
+        id = employeeRepository.save(Employee.builder()
+                .name("Profiled")
+                .country("Ukraine")
+                .gender(Gender.F)
+                .addresses(Set.of(Address.builder().country("UA").city("Lviv").addressHasActive(true).build()))
+                .build()).getId();
+        requestProfiler.reset();
+
+        mockMvc.perform(get("/api/users/{id}", id)).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/slowrequests"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode request = StreamSupport.stream(new ObjectMapper().readTree(body).spliterator(), false)
+                .filter(node -> "/api/users/{id}".equals(node.get("route").asText()))
+                .findFirst().orElseThrow();
+
+        assertThat(request.get("method").asText()).isEqualTo("GET");
+        assertThat(request.get("status").asInt()).isEqualTo(200);
+        assertThat(request.get("sqlStatements").asInt()).isPositive();
+        assertThat(request.get("serviceMs").asDouble()).isPositive();
+        assertThat(request.get("mapperMs").asDouble()).isPositive();
+        assertThat(request.get("durationMs").asDouble()).isGreaterThanOrEqualTo(request.get("serviceMs").asDouble());
+        assertThat(request.get("allocatedBytes").asLong()).isPositive();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    @DisplayName("Slowest requests are only listed and reset for admins test")
+    public void slowRequestsSecuredTest() throws Exception {
+        mockMvc.perform(get("/actuator/slowrequests")).andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/slowrequests")).andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/slowrequests").with(anonymous())).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Repeated selects are reported and nested calls counted once test")
+    public void repeatedSelectsTest() {
+        var profiler = new RequestProfiler(2, 3);
+        for (int i = 0; i < 3; i++) {
+            RequestProfiler.Recording recording = profiler.start();
+            RequestProfile profile = RequestProfile.current();
+            assertThat(profile).isSameAs(recording.profile());
+            for (int row = 0; row < 4; row++) {
+                profile.statementExecuted("select * from addresses where employee_id=?", 1_000);
+            }
+            profile.statementExecuted("select * from users where id=?", 1_000);
+            profile.statementExecuted("select nextval('users_seq')", 1_000);
+            profile.statementExecuted("select nextval('users_seq')", 1_000);
+            profile.statementExecuted("select nextval('users_seq')", 1_000);
+            assertThat(profile.enter(RequestProfile.Layer.SERVICE)).isTrue();
+            assertThat(profile.enter(RequestProfile.Layer.SERVICE)).isFalse();
+            profile.exit(RequestProfile.Layer.SERVICE, 0);
+            profile.exit(RequestProfile.Layer.SERVICE, 2_000_000);
+            profiler.finish(recording, "GET", "/api/users/" + i, "/api/users/{id}", 200);
+        }
+
+        assertThat(RequestProfile.current()).isNull();
+        List<RequestProfiler.SlowRequest> slowest = profiler.slowest();
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).durationMs()).isGreaterThanOrEqualTo(slowest.get(1).durationMs());
+        RequestProfiler.SlowRequest request = slowest.get(0);
+        assertThat(request.sqlStatements()).isEqualTo(8);
+        assertThat(request.sqlMs()).isEqualTo(0.008);
+        assertThat(request.serviceMs()).isEqualTo(2.0);
+        assertThat(request.repeatedSelects()).containsExactly(
+                new RequestProfile.RepeatedStatement("select * from addresses where employee_id=?", 4));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.dto.EmployeeSaveDto;
+import com.example.demowithtests.util.blocklist.AhoCorasickMatcher;
+import com.example.demowithtests.util.blocklist.RestrictedNameList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Restricted Names Validator Tests")
+public class RestrictedNamesValidatorTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Terms are found anywhere ignoring case and repeated whitespace test")
+    public void matcherTest() {
+        var matcher = AhoCorasickMatcher.of(List.of("he", "she", "his", "hers", "Osama  bin Laden", "", "# comment"));
+
+        assertThat(matcher.size()).isEqualTo(5);
+        assertThat(matcher.containsAny("USHERS")).isTrue();
+        assertThat(matcher.containsAny("ahishers")).isTrue();
+        assertThat(matcher.containsAny("sh")).isFalse();
+        assertThat(matcher.containsAny("Mr osama\tBIN   laden jr")).isTrue();
+        assertThat(matcher.containsAny("Osama bin Lade")).isFalse();
+        assertThat(matcher.containsAny("")).isFalse();
+        assertThat(AhoCorasickMatcher.empty().containsAny("she")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Failure links find a term inside a longer partial match test")
+    public void failureLinkTest() {
+        var matcher = AhoCorasickMatcher.of(List.of("abcd", "bce"));
+
+        assertThat(matcher.containsAny("xabce")).isTrue();
+        assertThat(matcher.containsAny("abcbcd")).isFalse();
+        assertThat(matcher.containsAny("ababcd")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Names of the annotation and digits test")
+    public void validNameTest() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "name", "Vladimir PUTIN")).isNotEmpty();
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "name", "  mao   zedong ")).isNotEmpty();
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "name", "Oleh3")).isNotEmpty();
+        assertThat(validator.validateValue(EmployeeSaveDto.class, "name", "Olena Kovalenko")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Restricted terms file is reloaded when it changes test")
+    public void reloadTest() throws Exception {
+        Path file = directory.resolve("restricted-terms.txt");
+        Files.writeString(file, "voldemort\n");
+        var meterRegistry = new SimpleMeterRegistry();
+        try (var restrictedNames = new RestrictedNameList(file, Duration.ofHours(1), meterRegistry)) {
+            assertThat(restrictedNames.isRestricted("Lord Voldemort")).isTrue();
+
+            Files.writeString(file, "grindelwald\nsauron\n");
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+            restrictedNames.reloadIfChanged();
+
+            assertThat(restrictedNames.isRestricted("Lord Voldemort")).isFalse();
+            assertThat(restrictedNames.isRestricted("Sauron the Great")).isTrue();
+            assertThat(meterRegistry.get("names.restricted.terms").gauge().value()).isEqualTo(2);
+        }
+    }
+}
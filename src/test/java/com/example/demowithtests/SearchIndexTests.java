@@ -0,0 +1,107 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.search.EmployeeSearchIndex;
+import com.example.demowithtests.service.search.EmployeeSearchRow;
+import com.example.demowithtests.service.search.TrigramIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Search Index Tests")
+public class SearchIndexTests {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1, "Oleh Petrenko");
+        index.put(2, "Olena Kovalenko");
+        index.put(3, "Mario Rossi");
+        index.put(4, null);
+    }
+
+    @Test
+    @DisplayName("Substring search test")
+    public void substringSearchTest() {
+        assertThat(index.search("enko", false)).containsExactly(1, 2);
+        assertThat(index.search("Ole", false)).containsExactly(1, 2);
+        assertThat(index.search("ole", false)).isEmpty();
+        assertThat(index.search("ole", true)).containsExactly(1, 2);
+        assertThat(index.search("Rossini", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Trigram candidates are verified test")
+    public void candidatesAreVerifiedTest() {
+        index.put(5, "abcXbcd");
+
+        // all trigrams of "abcd" occur in "abcXbcd", the substring does not
+        assertThat(index.search("abcd", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Short fragment search test")
+    public void shortFragmentSearchTest() {
+        assertThat(index.search("o", false)).containsExactly(1, 2, 3);
+        assertThat(index.search("", false)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Update and remove test")
+    public void updateAndRemoveTest() {
+        long bytes = index.estimatedBytes();
+
+        index.put(1, "Taras Shevchenko");
+        index.remove(2);
+
+        assertThat(index.search("enko", false)).containsExactly(1);
+        assertThat(index.search("Oleh", false)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.estimatedBytes()).isPositive().isNotEqualTo(bytes);
+
+        index.remove(1);
+        index.remove(3);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.trigramCount()).isZero();
+        assertThat(index.postingsSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Employees changed in bulk are read again test")
+    public void refreshTest() {
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        var searchIndex = new EmployeeSearchIndex(true, employeeRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        searchIndex.put(new EmployeeSearchRow(1, "Oleh", null, null));
+        searchIndex.put(new EmployeeSearchRow(2, "Olena", null, null));
+        // 2 was soft deleted and 3 restored
+        when(employeeRepository.findSearchRowsByIdIn(List.of(2, 3)))
+                .thenReturn(List.of(new EmployeeSearchRow(3, "Oleksii", null, null)));
+
+        searchIndex.refreshAfterCommit(List.of(2, 3));
+
+        assertThat(searchIndex.findIdsByNameContaining("Ole", false)).containsExactly(1, 3);
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Postings stay sorted for out of order ids test")
+    public void outOfOrderIdsTest() {
+        index.put(100, "Olesia");
+        index.put(50, "Olesya");
+        index.put(75, "Olessia");
+
+        assertThat(index.search("Oles", false)).containsExactly(50, 75, 100);
+    }
+}
@@ -2,9 +2,19 @@ package com.example.demowithtests;
 
 import com.example.demowithtests.domain.Employee;
 import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.EmployeeCriteriaDto;
+import com.example.demowithtests.repository.EmployeeCriteria;
 import com.example.demowithtests.repository.EmployeeRepository;
 import com.example.demowithtests.service.EmployeeServiceBean;
+import com.example.demowithtests.service.search.EmployeeSearchIndex;
+import com.example.demowithtests.util.exception.GenderNotFoundException;
+import com.example.demowithtests.util.exception.ResourceConflictException;
 import com.example.demowithtests.util.exception.ResourceNotFoundException;
+import com.example.demowithtests.util.exception.ResourceWasDeletedException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +23,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.*;
@@ -21,6 +32,8 @@ import java.util.concurrent.ThreadLocalRandom;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +43,15 @@ public class ServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private EmployeeServiceBean service;
 
@@ -188,60 +210,122 @@ public class ServiceTests {
     @Test
     @DisplayName("Soft delete employee test")
     public void softDeleteEmployeeTest() {
-        // Настраиваем мок, чтобы возвращал тестового сотрудника при вызове findById с аргументом 1
-        when(employeeRepository.findById(1)).thenReturn(Optional.of(employee));
+        when(employeeRepository.updateDeletedFlag(any(EmployeeCriteria.class), eq(true), anyInt())).thenReturn(List.of(1));
 
-        // Вызываем метод сервиса, который использует findById и save
-        service.softRemoveById(1);
+        Employee deleted = service.softRemoveById(1);
 
-        // Проверяем, что метод findById был вызван с аргументом 1
-        var captor = ArgumentCaptor.forClass(Integer.class);
-        verify(employeeRepository).findById(captor.capture());
-        assertEquals(1, captor.getValue());
+        // один UPDATE вместо findById и save
+        var criteria = ArgumentCaptor.forClass(EmployeeCriteria.class);
+        verify(employeeRepository).updateDeletedFlag(criteria.capture(), eq(true), anyInt());
+        assertThat(criteria.getValue().ids()).containsExactly(1);
+        verify(employeeRepository, never()).findById(anyInt());
+        verify(employeeRepository, never()).save(any(Employee.class));
 
-        // Проверяем, что метод save был вызван с тем же объектом, который вернул findById
-        verify(employeeRepository).save(employee);
+        assertTrue(deleted.getIsDeleted(), "Expected isDeleted to be true");
+    }
 
-        // Проверяем, что у сотрудника установлен флаг isDeleted в true
-        assertTrue(employee.getIsDeleted(), "Expected isDeleted to be true");
+    @Test
+    @DisplayName("Soft delete of a deleted employee test")
+    public void softDeleteDeletedEmployeeTest() {
+        when(employeeRepository.updateDeletedFlag(any(EmployeeCriteria.class), eq(true), anyInt())).thenReturn(List.of());
+
+        assertThrows(ResourceWasDeletedException.class, () -> service.softRemoveById(1));
     }
 
-    private Employee createRussianEmployee(int id) {
-        return Employee.builder()
-                .id(id)
-                .name("RussianEmployee" + id)
-                .country("Russia")
-                .isDeleted(false)
-                .build();
+    @Test
+    @DisplayName("Patch employee test")
+    public void patchEmployeeTest() {
+        var patched = Employee.builder().id(1).name("Mark").country("Poland").version(4L).build();
+        when(employeeRepository.updateColumns(eq(1), anyMap(), eq(3L))).thenReturn(Optional.of(patched));
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("country", "Poland");
+        patch.put("gender", "F");
+
+        assertThat(service.patch(1, patch, 3L)).isSameAs(patched);
+
+        verify(employeeRepository).updateColumns(1, Map.of("country", "Poland", "gender", Gender.F), 3L);
+        verify(employeeSearchIndex).putAfterCommit(any());
+    }
+
+    @Test
+    @DisplayName("Patch with a stale version test")
+    public void patchConflictTest() {
+        when(employeeRepository.updateColumns(eq(1), anyMap(), eq(3L))).thenReturn(Optional.empty());
+        employee.setVersion(4L);
+        when(employeeRepository.findById(1)).thenReturn(Optional.of(employee));
+
+        assertThrows(ResourceConflictException.class, () -> service.patch(1, Map.of("country", "Poland"), 3L));
+    }
+
+    @Test
+    @DisplayName("Patch validation test")
+    public void patchValidationTest() {
+        assertThrows(IllegalArgumentException.class, () -> service.patch(1, Map.of("id", 2), null));
+        assertThrows(ConstraintViolationException.class, () -> service.patch(1, Collections.singletonMap("name", null), null));
+        assertThrows(ConstraintViolationException.class, () -> service.patch(1, Map.of("email", "not an email"), null));
+
+        verify(employeeRepository, never()).updateColumns(any(), any(), any());
     }
+
     @Test
     @DisplayName("Soft remove employees by country test")
     void softRemoveByCountryTest() {
-        // Создаем несколько тестовых сотрудников из России
-        Employee russianEmployee1 = createRussianEmployee(1);
-        Employee russianEmployee2 = createRussianEmployee(2);
+        when(employeeRepository.updateDeletedFlag(any(EmployeeCriteria.class), eq(true), anyInt()))
+                .thenReturn(List.of(1, 2));
 
-        List<Employee> russianEmployees = Arrays.asList(russianEmployee1, russianEmployee2);
+        List<Integer> removedIds = service.softRemoveByCountry();
 
-        // Настраиваем мок репозитория
-        when(employeeRepository.findAllRussian()).thenReturn(Optional.of(russianEmployees));
+        assertThat(removedIds).containsExactly(1, 2);
 
-        // Вызываем метод softRemoveByCountry
-        List<Employee> removedEmployees = service.softRemoveByCountry();
+        ArgumentCaptor<EmployeeCriteria> criteria = ArgumentCaptor.forClass(EmployeeCriteria.class);
+        verify(employeeRepository).updateDeletedFlag(criteria.capture(), eq(true), anyInt());
+        assertThat(criteria.getValue().country()).isEqualTo("Russian Federation");
+        // set-based update, no entity is loaded or saved one by one
+        verify(employeeRepository, never()).findAllRussian();
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
 
-        // Проверяем, что метод findAllRussian был вызван
-        verify(employeeRepository).findAllRussian();
+    @Test
+    @DisplayName("Soft remove employees by request criteria test")
+    void softRemoveByCriteriaTest() {
+        when(employeeRepository.updateDeletedFlag(any(EmployeeCriteria.class), eq(true), anyInt()))
+                .thenReturn(List.of(3));
 
-        // Проверяем, что список удаленных сотрудников не пустой
-        assertThat(removedEmployees).isNotEmpty();
+        assertThat(service.softRemoveBy(new EmployeeCriteriaDto("Poland", Gender.F, List.of(3), "Ann")))
+                .containsExactly(3);
 
-        // Проверяем, что удаленные сотрудники помечены как удаленные
-        for (Employee removedEmployee : removedEmployees) {
-            assertThat(removedEmployee.getIsDeleted()).isTrue();
+        verify(employeeRepository).updateDeletedFlag(
+                eq(new EmployeeCriteria("Poland", Gender.F, List.of(3), "Ann")), eq(true), anyInt());
+        verify(employeeSearchIndex).refreshAfterCommit(List.of(3));
+    }
+
+    @Test
+    @DisplayName("Create employees in chunks test")
+    void createAllInChunksTest() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            employees.add(Employee.builder().name("Employee" + i).country("UK").gender(Gender.F).build());
         }
+        when(employeeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Employee> created = service.createAll(employees);
+
+        assertThat(created).containsExactlyElementsOf(employees);
+        // 120 employees go out as chunks of 50, 50 and 20
+        verify(employeeRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Create employees rejects the whole batch without gender test")
+    void createAllWithoutGenderTest() {
+        List<Employee> employees = List.of(employee, Employee.builder().name("Anna").country("UK").build());
+
+        assertThrows(GenderNotFoundException.class, () -> service.createAll(employees));
 
-        // Проверяем, что метод save был вызван для каждого удаленного сотрудника
-        verify(employeeRepository, times(removedEmployees.size())).save(any(Employee.class));
+        verify(employeeRepository, never()).saveAll(anyList());
     }
 
 }
@@ -0,0 +1,95 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.domain.Gender;
+import com.example.demowithtests.dto.EmployeeStatsDimension;
+import com.example.demowithtests.dto.EmployeeStatsDto;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.EmployeeService;
+import com.example.demowithtests.util.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DisplayName("Soft Delete Filter Tests")
+public class SoftDeleteFilterTests {
+
+    private static final String COUNTRY = "Belarus";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Employee active;
+
+    private Employee deleted;
+
+    @BeforeEach
+    void setUp() {
+        active = employeeRepository.save(employee("Active", false));
+        deleted = employeeRepository.save(employee("Deleted", true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllById(List.of(active.getId(), deleted.getId()));
+    }
+
+    @Test
+    @DisplayName("Deleted employees are filtered from reads test")
+    public void deletedAreFilteredTest() {
+        assertThat(employeeService.filterByCountry(COUNTRY))
+                .extracting(Employee::getId)
+                .contains(active.getId())
+                .doesNotContain(deleted.getId());
+
+        assertThat(employeeService.getById(active.getId()).getId()).isEqualTo(active.getId());
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.getById(deleted.getId()));
+    }
+
+    @Test
+    @DisplayName("Include deleted opt-out test")
+    public void includeDeletedTest() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<List<Integer>> ids = transaction.execute(status -> List.of(
+                employeeService.findAllDeletedBelarus().stream().map(Employee::getId).toList(),
+                // the filter is back for the rest of the transaction
+                employeeRepository.findEmployeesByCountry(COUNTRY).stream().map(Employee::getId).toList()));
+
+        assertThat(ids.get(0)).contains(deleted.getId());
+        assertThat(ids.get(1)).contains(active.getId()).doesNotContain(deleted.getId());
+
+        assertThat(employeeService.getStats(Set.of(EmployeeStatsDimension.DELETED)))
+                .extracting(EmployeeStatsDto::deleted)
+                .contains(true, false);
+    }
+
+    private static Employee employee(String name, boolean isDeleted) {
+        return Employee.builder()
+                .name(name)
+                .country(COUNTRY)
+                .gender(Gender.M)
+                .isDeleted(isDeleted)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.demowithtests;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL statements the current thread sends through a data source wrapped with {@link #wrap},
+ * see {@link SqlRecorderConfig}. Everything going through JDBC is seen: Hibernate, Spring Data and
+ * {@code JdbcTemplate} alike. A batch counts as one statement, like the round trip it is.
+ */
+public final class SqlRecorder {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "addBatch");
+
+    private SqlRecorder() {
+    }
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * @return statements sent while {@code action} ran, in order
+     */
+    public static Statements record(SqlAction action) throws Exception {
+        List<String> previous = RECORDING.get();
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                RECORDING.remove();
+            } else {
+                RECORDING.set(previous);
+                previous.addAll(statements);
+            }
+        }
+        return new Statements(List.copyOf(statements));
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(dataSource, (method, args) -> {
+            Object result = method.invoke(dataSource, args);
+            return method.getName().equals("getConnection") ? wrap((Connection) result) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(connection, (method, args) -> {
+            if (PREPARE_METHODS.contains(method.getName())) {
+                recordStatement((String) args[0]);
+            }
+            Object result = method.invoke(connection, args);
+            return method.getName().equals("createStatement") ? wrap((Statement) result) : result;
+        });
+    }
+
+    private static Statement wrap(Statement statement) {
+        return proxy(statement, (method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                recordStatement(sql);
+            }
+            return method.invoke(statement, args);
+        });
+    }
+
+    private static void recordStatement(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, Invocation invocation) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                ClassUtils.getAllInterfaces(target), handler);
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    public record Statements(List<String> sql) {
+
+        private static final Pattern DATA_CHANGE_DELTA_TABLE =
+                Pattern.compile("FINAL TABLE \\(\\s*(INSERT|UPDATE|DELETE|MERGE)\\b", Pattern.CASE_INSENSITIVE);
+
+        public int count() {
+            return sql.size();
+        }
+
+        /**
+         * @param verb first keyword of the statement, e.g. {@code select}
+         */
+        public long count(String verb) {
+            return sql.stream().filter(statement -> verb(statement).equals(verb)).count();
+        }
+
+        /**
+         * Selects sent more than once with the same text, the sign of an N+1: a lazy association or
+         * a per-row lookup loaded one owner at a time.
+         *
+         * @return repeat count by statement
+         */
+        public Map<String, Long> repeatedSelects() {
+            return sql.stream()
+                    .filter(statement -> verb(statement).equals("select"))
+                    // id blocks of the sequences are fetched by the same select on purpose
+                    .filter(statement -> !statement.toLowerCase(Locale.ROOT).contains("next value for"))
+                    .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()))
+                    .entrySet().stream()
+                    .filter(entry -> entry.getValue() > 1)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        }
+
+        private static String verb(String statement) {
+            String trimmed = statement.stripLeading();
+            int end = 0;
+            while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+                end++;
+            }
+            String verb = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+            // H2 has no RETURNING, EmployeeBulkRepositoryImpl selects from the changed rows instead
+            Matcher changed = DATA_CHANGE_DELTA_TABLE.matcher(trimmed);
+            return verb.equals("select") && changed.find() ? changed.group(1).toLowerCase(Locale.ROOT) : verb;
+        }
+
+        @Override
+        public String toString() {
+            return String.join("\n", sql);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demowithtests;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Import into a test context to record the SQL of its data source with {@link SqlRecorder#record}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlRecorderConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlRecordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? SqlRecorder.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demowithtests;
+
+import com.example.demowithtests.domain.Employee;
+import com.example.demowithtests.repository.EmployeeRepository;
+import com.example.demowithtests.service.fillDataBase.LoaderServiceBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that substring search is served by the pg_trgm indexes of V13 on a generated dataset.
+ * Needs a PostgreSQL database, e.g.
+ * <pre>
+ * PG_TEST_URL=jdbc:postgresql://localhost:5432/employee_test mvn test -Dtest=TrigramSearchPostgresTests
+ * </pre>
+ * The database is migrated with Flyway and filled up to {@code -Dpg.test.rows} (200 000 by default) employees.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "PG_TEST_URL", matches = ".+")
+@DisplayName("Trigram search on PostgreSQL")
+public class TrigramSearchPostgresTests {
+
+    private static final String RARE_NAME = "Qwyxzvbrtk Jonsson";
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("PG_TEST_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("PG_TEST_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("PG_TEST_PASSWORD", "postgres"));
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.baseline-on-migrate", () -> "true");
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void fill() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        long rows = Long.getLong("pg.test.rows", 200_000);
+        long missing = rows - employeeRepository.count();
+        var loader = new LoaderServiceBean(employeeRepository, dataSource);
+        for (long seed = 7; missing > 0; seed++, missing -= LoaderServiceBean.MAX_COUNT) {
+            loader.generateData(Math.min(missing, LoaderServiceBean.MAX_COUNT), seed, 4);
+        }
+        employeeRepository.save(Employee.builder()
+                .name(RARE_NAME)
+                .email("qwyxzvbrtk@mail.com")
+                .country("Ukraine")
+                .build());
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @Test
+    @DisplayName("ILIKE '%text%' uses the trigram indexes")
+    public void substringSearchUsesTrigramIndexTest() {
+        assertThat(plan("SELECT * FROM users WHERE name ILIKE '%wyxzvb%'")).contains("idx_users_name_trgm");
+        assertThat(plan("SELECT * FROM users WHERE email ILIKE '%wyxzvb%'")).contains("idx_users_email_trgm");
+        assertThat(plan("SELECT * FROM users WHERE country ILIKE '%wyxzvb%'")).contains("idx_users_country_trgm");
+    }
+
+    @Test
+    @DisplayName("Ranked search finds the closest match first")
+    public void rankedSearchTest() {
+        assertThat(plan("SELECT * FROM users WHERE name ILIKE '%wyxzvb%' OR email ILIKE '%wyxzvb%' " +
+                "OR country ILIKE '%wyxzvb%' ORDER BY id LIMIT 20"))
+                .doesNotContain("Seq Scan on users");
+
+        List<Employee> found = employeeRepository.searchRanked("QWYXZVBRTK", "%QWYXZVBRTK%", 20);
+
+        assertThat(found).isNotEmpty();
+        assertThat(found.get(0).getName()).isEqualTo(RARE_NAME);
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}